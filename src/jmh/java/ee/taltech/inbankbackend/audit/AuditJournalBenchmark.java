@@ -0,0 +1,65 @@
+package ee.taltech.inbankbackend.audit;
+
+import ee.taltech.inbankbackend.service.Country;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what recording a decision costs the request threads when four of them record at once, with the writer
+ * thread appending to a journal in the temporary directory. With DROP the rate is bounded by the ring buffer, with
+ * BLOCK by how fast the writer gets the records to the file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AuditJournalBenchmark {
+
+    @Param({"BLOCK", "DROP"})
+    private FileAuditJournal.Overflow overflow;
+
+    private Path file;
+    private FileAuditJournal journal;
+    private AuditRecord record;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("decisions", ".journal");
+        Files.delete(file);
+        journal = new FileAuditJournal(new SimpleMeterRegistry(), file, 65536, overflow, Duration.ofSeconds(1));
+        record = new AuditRecord(System.currentTimeMillis(), 0, Country.EE, "49002010976", 4000, 24, 4000, 24, null,
+                1500);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void record() {
+        journal.record(record);
+    }
+}
@@ -0,0 +1,88 @@
+package ee.taltech.inbankbackend.config;
+
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import ee.taltech.inbankbackend.service.DecisionEngineFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the request throughput of the Tomcat sized platform thread pool with virtual threads when every request
+ * blocks on a remote call before it is decided. The virtual executor needs a Java 21 or newer runtime.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestExecutorBenchmark {
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    @Param({"0", "10"})
+    private int maxConcurrency;
+
+    @Param({"5"})
+    private int remoteCallMillis;
+
+    private ExecutorService executorService;
+    private ConcurrencyLimitedExecutor requestExecutor;
+    private DecisionEngine decisionEngine;
+
+    @Setup
+    public void setUp() {
+        executorService = executor.equals("virtual")
+                ? VirtualThreadConfiguration.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        requestExecutor = new ConcurrencyLimitedExecutor(executorService, maxConcurrency);
+
+        decisionEngine = new DecisionEngineFixture()
+                .resultCache(100, Duration.ZERO)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void handleRequests() throws InterruptedException {
+        CountDownLatch handled = new CountDownLatch(REQUESTS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            requestExecutor.execute(() -> {
+                try {
+                    Thread.sleep(remoteCallMillis);
+                    decisionEngine.calculateApprovedLoan("49002010976", 4000L, 24);
+                } catch (Throwable ignored) {
+                    // Rejections and interruptions still count as handled requests.
+                } finally {
+                    handled.countDown();
+                }
+            });
+        }
+        handled.await();
+    }
+}
@@ -0,0 +1,87 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a decision request and encoding a decision response as JSON, as CBOR and in the compact binary
+ * format of the DecisionBinaryCodec. Run with the gc profiler to compare the allocation per request as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    private final DecisionRequest request = new DecisionRequest("49002010976", 4000L, 24);
+    private final DecisionResponse response = new DecisionResponse(4000, 24, null);
+
+    private ObjectReader jsonReader;
+    private ObjectWriter jsonWriter;
+    private ObjectReader cborReader;
+    private ObjectWriter cborWriter;
+    private byte[] jsonRequest;
+    private byte[] cborRequest;
+    private byte[] binaryRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper jsonMapper = new ObjectMapper().registerModule(new ParameterNamesModule());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).registerModule(new ParameterNamesModule());
+        jsonReader = jsonMapper.readerFor(DecisionRequest.class);
+        jsonWriter = jsonMapper.writerFor(DecisionResponse.class);
+        cborReader = cborMapper.readerFor(DecisionRequest.class);
+        cborWriter = cborMapper.writerFor(DecisionResponse.class);
+        jsonRequest = jsonMapper.writeValueAsBytes(request);
+        cborRequest = cborMapper.writeValueAsBytes(request);
+        binaryRequest = DecisionBinaryCodec.encodeRequest(request);
+    }
+
+    @Benchmark
+    public DecisionRequest decodeJsonRequest() throws IOException {
+        return jsonReader.readValue(jsonRequest);
+    }
+
+    @Benchmark
+    public DecisionRequest decodeCborRequest() throws IOException {
+        return cborReader.readValue(cborRequest);
+    }
+
+    @Benchmark
+    public DecisionRequest decodeBinaryRequest() {
+        return DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(binaryRequest));
+    }
+
+    @Benchmark
+    public byte[] encodeJsonResponse() throws IOException {
+        return jsonWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeCborResponse() throws IOException {
+        return cborWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeBinaryResponse() {
+        return DecisionBinaryCodec.encodeResponse(response);
+    }
+}
@@ -0,0 +1,60 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Valid personal ID codes and credit modifiers of adult customers, one per customer segment.
+ */
+final class BenchmarkCustomers {
+
+    private BenchmarkCustomers() {
+    }
+
+    static String personalCode(String segment) {
+        return switch (segment) {
+            case "debt" -> "49002010965";
+            case "1" -> "49002010976";
+            case "2" -> "49002010987";
+            case "3" -> "49002010998";
+            default -> throw new IllegalArgumentException("Unknown segment " + segment);
+        };
+    }
+
+    /**
+     * @param segment Customer segment
+     * @param count Number of personal ID codes
+     * @return Different personal ID codes of adult customers of the segment, starting with {@link #personalCode(String)}
+     */
+    static String[] personalCodes(String segment, int count) {
+        SegmentResolver segmentResolver = new SegmentResolver(DecisionPolicy.DEFAULT);
+        int creditModifier = creditModifier(segment);
+        Set<String> personalCodes = new LinkedHashSet<>();
+        personalCodes.add(personalCode(segment));
+
+        LocalDate birthDate = LocalDate.of(1990, 2, 1);
+        for (int serial = 0; personalCodes.size() < count; serial++) {
+            String code = "4" + birthDate.plusDays(serial / 1000).format(DateTimeFormatter.BASIC_ISO_DATE).substring(2)
+                    + String.format("%03d", serial % 1000);
+            for (int checksum = 0; checksum <= 9; checksum++) {
+                long parsedCode = PersonalCodeParser.parse(code + checksum);
+                if (PersonalCodeParser.hasValidChecksum(parsedCode)) {
+                    if (segmentResolver.getCreditModifier(PersonalCodeParser.segmentEnding(parsedCode))
+                            == creditModifier) {
+                        personalCodes.add(code + checksum);
+                    }
+                    break;
+                }
+            }
+        }
+        return personalCodes.toArray(String[]::new);
+    }
+
+    static int creditModifier(String segment) {
+        return new SegmentResolver(DecisionPolicy.DEFAULT).getCreditModifier(Country.EE, personalCode(segment));
+    }
+}
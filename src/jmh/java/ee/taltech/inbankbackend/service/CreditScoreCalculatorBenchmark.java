@@ -0,0 +1,84 @@
+package ee.taltech.inbankbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores every loan amount on the 100 euro grid for one loan period: one amount at a time through the primitive and the
+ * boxed signatures, and all at once through the bulk variant. The gc profiler shows the boxing of the boxed one.
+ * The approval mask benchmark scores the whole loan amount x loan period grid.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreditScoreCalculatorBenchmark {
+
+    @Param({"debt", "1", "2", "3"})
+    private String segment;
+
+    @Param({"12", "24", "48"})
+    private int loanPeriod;
+
+    private CreditScoreCalculator creditScoreCalculator;
+    private int creditModifier;
+    private int[] loanAmounts;
+    private int[] loanPeriods;
+    private double[] creditScores;
+
+    @Setup
+    public void setUp() {
+        creditScoreCalculator = new RegularCreditScoreCalculator();
+        creditModifier = BenchmarkCustomers.creditModifier(segment);
+        loanAmounts = new int[81];
+        for (int i = 0; i < loanAmounts.length; i++) {
+            loanAmounts[i] = 10000 - i * 100;
+        }
+        creditScores = new double[loanAmounts.length];
+        loanPeriods = new int[37];
+        for (int i = 0; i < loanPeriods.length; i++) {
+            loanPeriods[i] = 12 + i;
+        }
+    }
+
+    @Benchmark
+    public double[] scorePrimitive() {
+        for (int i = 0; i < loanAmounts.length; i++) {
+            creditScores[i] = creditScoreCalculator.calculateCreditScore(creditModifier, loanAmounts[i], loanPeriod);
+        }
+        return creditScores;
+    }
+
+    @Benchmark
+    public double[] scoreBoxed() {
+        for (int i = 0; i < loanAmounts.length; i++) {
+            Long loanAmount = (long) loanAmounts[i];
+            creditScores[i] = creditScoreCalculator.calculateCreditScore(creditModifier, loanAmount, loanPeriod);
+        }
+        return creditScores;
+    }
+
+    @Benchmark
+    public double[] scoreBulk() {
+        creditScoreCalculator.calculateCreditScores(creditModifier, loanAmounts, loanPeriod, creditScores);
+        return creditScores;
+    }
+
+    @Benchmark
+    public long[] calculateApprovalMask() {
+        return creditScoreCalculator.calculateApprovalMask(creditModifier, loanAmounts, loanPeriods, 0.1);
+    }
+}
@@ -0,0 +1,72 @@
+package ee.taltech.inbankbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole loan decision, from the personal ID code validation to the approved loan.
+ * Rejected decisions are measured too, the thrown exception is returned as the result. Decisions are not cached, with
+ * a single customer every decision hits the customer profile cache, with many customers most of them miss it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecisionEngineBenchmark {
+    private static final int PROFILE_CACHE_SIZE = 100;
+
+    @Param({"debt", "1", "2", "3"})
+    private String segment;
+
+    @Param({"2000", "5000", "10000"})
+    private long loanAmount;
+
+    @Param({"12", "24", "48"})
+    private int loanPeriod;
+
+    /**
+     * Number of customers of the segment the requests cycle through. With more customers than the profile cache
+     * holds, most decisions miss the cache and validate the customer again.
+     */
+    @Param({"1", "1000"})
+    private int customers;
+
+    private DecisionEngine decisionEngine;
+    private String[] personalCodes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        decisionEngine = new DecisionEngineFixture()
+                .profileCache(PROFILE_CACHE_SIZE, Duration.ofMinutes(10))
+                // Results are not kept, so every invocation decides the loan again
+                .resultCache(100, Duration.ZERO)
+                .build();
+        personalCodes = BenchmarkCustomers.personalCodes(segment, customers);
+    }
+
+    @Benchmark
+    public Object calculateApprovedLoan() {
+        try {
+            String personalCode = personalCodes[next];
+            next = next + 1 == personalCodes.length ? 0 : next + 1;
+            return decisionEngine.calculateApprovedLoan(personalCode, loanAmount, loanPeriod);
+        } catch (Throwable rejection) {
+            return rejection;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loan amount searches and the decision table lookup that replaced them on the request path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanAmountCalculatorBenchmark {
+    private static final DecisionPolicy POLICY = DecisionPolicy.DEFAULT;
+
+    @Param({"debt", "1", "2", "3"})
+    private String segment;
+
+    @Param({"2000", "5000", "10000"})
+    private long loanAmount;
+
+    @Param({"12", "24", "48"})
+    private int loanPeriod;
+
+    private LoanAmountCalculator loanAmountCalculator;
+    private DecisionTable decisionTable;
+    private int creditModifier;
+
+    @Setup
+    public void setUp() {
+        CreditScoreCalculator creditScoreCalculator = new RegularCreditScoreCalculator();
+        loanAmountCalculator = new LoanAmountCalculator(creditScoreCalculator);
+        decisionTable = new DecisionTable(creditScoreCalculator, loanAmountCalculator,
+                new DecisionMetrics(new SimpleMeterRegistry()), new DecisionPolicyHolder());
+        creditModifier = BenchmarkCustomers.creditModifier(segment);
+    }
+
+    @Benchmark
+    public Decision findValidLoanAmount() {
+        return loanAmountCalculator.findValidLoanAmount(POLICY, creditModifier, loanAmount, loanPeriod);
+    }
+
+    @Benchmark
+    public Decision findMaximumLoanAmount() {
+        return loanAmountCalculator.findMaximumLoanAmount(POLICY, loanPeriod, creditModifier);
+    }
+
+    @Benchmark
+    public int decideFromTable() {
+        return decisionTable.decide(POLICY, creditModifier, loanAmount, loanPeriod);
+    }
+}
@@ -0,0 +1,73 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the personal ID code formats of the supported countries: parsing a valid code, verifying its checksum and
+ * the whole validation a customer profile is built with. Run with the gc profiler to see that none of them allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonalCodeFormatBenchmark {
+
+    @Param({"EE", "LV", "LT", "FI"})
+    private Country country;
+
+    private PersonalCodeValidator personalCodeValidator;
+    private AgeValidator ageValidator;
+    private String personalCode;
+    private long parsedCode;
+
+    @Setup
+    public void setUp() {
+        personalCodeValidator = new RegularPersonalCodeValidator();
+        ageValidator = new RegularAgeValidator(Clock.systemDefaultZone(), new DecisionPolicyHolder());
+        personalCode = switch (country) {
+            case EE -> "49002010976";
+            case LV -> "161175-19997";
+            case LT -> "33309240064";
+            case FI -> "131052-308T";
+        };
+        parsedCode = PersonalCodeParser.parse(country, personalCode);
+    }
+
+    @Benchmark
+    public long parse() {
+        return PersonalCodeParser.parse(country, personalCode);
+    }
+
+    @Benchmark
+    public boolean verifyChecksum() {
+        return PersonalCodeParser.hasValidChecksum(parsedCode);
+    }
+
+    @Benchmark
+    public long parseAndValidate() {
+        try {
+            long code = PersonalCodeParser.parse(country, personalCode);
+            personalCodeValidator.isValid(code);
+            ageValidator.verifyAgeEligibility(code);
+            return code;
+        } catch (Throwable rejection) {
+            return PersonalCodeParser.INVALID;
+        }
+    }
+}
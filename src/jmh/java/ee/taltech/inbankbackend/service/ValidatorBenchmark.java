@@ -0,0 +1,88 @@
+package ee.taltech.inbankbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stages that run before the loan is decided: parsing and validating the personal ID code,
+ * verifying the customer's age and looking up the credit modifier, and finding the same customer's cached profile.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    @Param({"debt", "1", "2", "3"})
+    private String segment;
+
+    private PersonalCodeValidator personalCodeValidator;
+    private AgeValidator ageValidator;
+    private CustomerProfileRule customerProfileRule;
+    private CustomerProfileCache customerProfileCache;
+    private String personalCode;
+    private long parsedCode;
+
+    @Setup
+    public void setUp() {
+        DecisionEngineFixture fixture = new DecisionEngineFixture();
+        fixture.build();
+        personalCodeValidator = fixture.getPersonalCodeValidator();
+        ageValidator = fixture.getAgeValidator();
+        customerProfileRule = fixture.getCustomerProfileRule();
+        customerProfileCache = fixture.getCustomerProfileCache();
+        personalCode = BenchmarkCustomers.personalCode(segment);
+        parsedCode = PersonalCodeParser.parse(personalCode);
+        customerProfileCache.get(Country.EE, personalCode, 0,
+                code -> CompletableFuture.completedFuture(new CustomerProfile(0, true, null, 0, null)));
+    }
+
+    @Benchmark
+    public long parsePersonalCode() {
+        return PersonalCodeParser.parse(personalCode);
+    }
+
+    @Benchmark
+    public Object validatePersonalCode() {
+        try {
+            return personalCodeValidator.isValid(parsedCode);
+        } catch (Throwable rejection) {
+            return rejection;
+        }
+    }
+
+    @Benchmark
+    public Object verifyAgeEligibility() {
+        try {
+            ageValidator.verifyAgeEligibility(parsedCode);
+            return null;
+        } catch (Throwable rejection) {
+            return rejection;
+        }
+    }
+
+    @Benchmark
+    public int getCreditModifier() {
+        return customerProfileRule.getCreditModifier(Country.EE, personalCode);
+    }
+
+    @Benchmark
+    public CustomerProfile getCachedCustomerProfile() {
+        return customerProfileCache.get(Country.EE, personalCode, 0,
+                code -> CompletableFuture.completedFuture(CustomerProfile.INVALID));
+    }
+}
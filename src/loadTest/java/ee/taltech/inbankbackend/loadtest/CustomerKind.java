@@ -0,0 +1,74 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.service.PersonalCodeParser;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * The kinds of customers in a traffic mix. Segments follow the last two digits of the personal ID code and the age
+ * limits of the default decision policy.
+ */
+public enum CustomerKind {
+    DEBT(0, 74, Age.ELIGIBLE),
+    SEGMENT_1(75, 84, Age.ELIGIBLE),
+    SEGMENT_2(85, 94, Age.ELIGIBLE),
+    SEGMENT_3(95, 99, Age.ELIGIBLE),
+    UNDERAGE(0, 99, Age.UNDERAGE),
+    OVERAGE(0, 99, Age.OVERAGE),
+    INVALID_CODE(0, 99, Age.ELIGIBLE);
+
+    private final int fromLastTwoDigits;
+    private final int toLastTwoDigits;
+    private final Age age;
+
+    CustomerKind(int fromLastTwoDigits, int toLastTwoDigits, Age age) {
+        this.fromLastTwoDigits = fromLastTwoDigits;
+        this.toLastTwoDigits = toLastTwoDigits;
+        this.age = age;
+    }
+
+    /**
+     * Generates a personal ID code of a random customer of this kind. Invalid codes are valid codes with a wrong
+     * checksum digit.
+     * @param random Source of randomness
+     * @param today Date the customer's age is counted from
+     * @return An 11 digit Estonian personal ID code
+     */
+    public String randomPersonalCode(Random random, LocalDate today) {
+        DecisionPolicy policy = DecisionPolicy.DEFAULT;
+        int fromAge = switch (age) {
+            case UNDERAGE -> 1;
+            case ELIGIBLE -> policy.getMinimumAge();
+            case OVERAGE -> policy.getMaximumAge() + 1;
+        };
+        int toAge = switch (age) {
+            case UNDERAGE -> policy.getMinimumAge() - 1;
+            case ELIGIBLE -> policy.getMaximumAge() - 1;
+            case OVERAGE -> policy.getMaximumAge() + 20;
+        };
+
+        while (true) {
+            LocalDate birthDate = today.minusYears(fromAge).minusDays(random.nextInt(365 * (toAge - fromAge) + 1));
+            int centuryDigit = (birthDate.getYear() / 100 - 18) * 2 + 1 + random.nextInt(2);
+            String code = String.format("%d%02d%02d%02d%03d", centuryDigit, birthDate.getYear() % 100,
+                    birthDate.getMonthValue(), birthDate.getDayOfMonth(), random.nextInt(1000));
+
+            for (int checksum = 0; checksum <= 9; checksum++) {
+                long parsedCode = PersonalCodeParser.parse(code + checksum);
+                if (PersonalCodeParser.hasValidChecksum(parsedCode)) {
+                    int lastTwoDigits = PersonalCodeParser.segmentEnding(parsedCode);
+                    if (lastTwoDigits < fromLastTwoDigits || lastTwoDigits > toLastTwoDigits) {
+                        break;
+                    }
+                    return this == INVALID_CODE ? code + (checksum + 1 + random.nextInt(9)) % 10 : code + checksum;
+                }
+            }
+        }
+    }
+
+    private enum Age {
+        UNDERAGE, ELIGIBLE, OVERAGE
+    }
+}
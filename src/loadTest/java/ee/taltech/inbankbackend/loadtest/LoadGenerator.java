@@ -0,0 +1,119 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends decision requests from a number of concurrent workers, each waiting for its response before sending the next
+ * request. Without a target rate the workers send as fast as the service answers (closed loop). With a target rate
+ * every worker sends on a fixed schedule and latency is measured from the scheduled send time, so a stalled service
+ * shows up in the percentiles instead of only slowing down the generator.
+ */
+public class LoadGenerator {
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final List<LoadRequest> requests;
+    private final int concurrency;
+    private final int requestsPerSecond;
+
+    /**
+     * @param httpClient Client sending the requests
+     * @param uri Address of the decision endpoint
+     * @param requests Requests to pick from at random
+     * @param concurrency Number of concurrent workers
+     * @param requestsPerSecond Target rate of all workers together, 0 to send as fast as possible
+     */
+    public LoadGenerator(HttpClient httpClient, URI uri, List<LoadRequest> requests, int concurrency,
+                         int requestsPerSecond) {
+        this.httpClient = httpClient;
+        this.uri = uri;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Runs the load for the warm-up and then for the measured duration.
+     * @param warmup Time to send requests that are not measured, so the service is compiled and its caches are filled
+     * @param duration Time to measure
+     * @return The measured requests
+     */
+    public LoadReport run(Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        long interval = requestsPerSecond > 0 ? 1_000_000_000L * concurrency / requestsPerSecond : 0;
+
+        List<Thread> workers = new ArrayList<>(concurrency);
+        List<LoadRecorder> recorders = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            LoadRecorder recorder = new LoadRecorder();
+            // Spread the scheduled workers evenly over the interval
+            long firstSend = start + interval * i / concurrency;
+            Thread worker = new Thread(() -> work(recorder, firstSend, interval, measureFrom, measureUntil),
+                    "load-generator-" + i);
+            recorders.add(recorder);
+            workers.add(worker);
+            worker.start();
+        }
+
+        LoadRecorder total = new LoadRecorder();
+        for (int i = 0; i < concurrency; i++) {
+            workers.get(i).join();
+            total.add(recorders.get(i));
+        }
+        return new LoadReport(total, duration);
+    }
+
+    private void work(LoadRecorder recorder, long firstSend, long interval, long measureFrom, long measureUntil) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long scheduledSend = firstSend;
+
+        while (true) {
+            long sendTime = System.nanoTime();
+            if (interval > 0) {
+                while (sendTime < scheduledSend) {
+                    LockSupport.parkNanos(scheduledSend - sendTime);
+                    sendTime = System.nanoTime();
+                }
+                sendTime = scheduledSend;
+                scheduledSend += interval;
+            }
+            if (sendTime >= measureUntil) {
+                return;
+            }
+
+            LoadRequest request = requests.get(random.nextInt(requests.size()));
+            int status = send(request);
+            if (sendTime >= measureFrom) {
+                recorder.record(request.getCustomerKind(), status, System.nanoTime() - sendTime);
+            }
+        }
+    }
+
+    /**
+     * @return The status of the response, or 0 if the request failed without a response
+     */
+    private int send(LoadRequest request) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request.getBody()))
+                .build();
+        try {
+            return httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the latency and the response status of every measured request of one load generator worker, so workers
+ * never contend on shared counters. Status 0 stands for requests that failed without a response.
+ */
+class LoadRecorder {
+    private long[] latencies = new long[1 << 16];
+    private int count;
+    private final Map<CustomerKind, Map<Integer, Long>> statuses = new EnumMap<>(CustomerKind.class);
+
+    void record(CustomerKind customerKind, int status, long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statuses.computeIfAbsent(customerKind, kind -> new HashMap<>()).merge(status, 1L, Long::sum);
+    }
+
+    /**
+     * Adds the requests recorded by the other recorder to this one.
+     */
+    void add(LoadRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        other.statuses.forEach((kind, kindStatuses) -> kindStatuses.forEach((status, statusCount) ->
+                statuses.computeIfAbsent(kind, k -> new HashMap<>()).merge(status, statusCount, Long::sum)));
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The recorded latencies in nanoseconds, sorted
+     */
+    long[] sortedLatencies() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    Map<CustomerKind, Map<Integer, Long>> getStatuses() {
+        return statuses;
+    }
+}
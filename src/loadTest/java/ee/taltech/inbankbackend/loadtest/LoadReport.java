@@ -0,0 +1,72 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the measured requests of a load test: throughput, latency percentiles and the responses by status.
+ * Server errors (5xx) and requests without a response count as errors; 400 and 404 are regular rejections.
+ */
+public class LoadReport {
+    private final Duration duration;
+    private final long[] latencies;
+    private final Map<CustomerKind, Map<Integer, Long>> statuses;
+
+    LoadReport(LoadRecorder recorder, Duration duration) {
+        this.duration = duration;
+        this.latencies = recorder.sortedLatencies();
+        this.statuses = recorder.getStatuses();
+    }
+
+    public long getRequests() {
+        return latencies.length;
+    }
+
+    public double getThroughput() {
+        return latencies.length * 1e9 / duration.toNanos();
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in nanoseconds that the given percentage of the requests did not exceed, 0 without requests
+     */
+    public long getLatency(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+    }
+
+    public long getErrors() {
+        long errors = 0;
+        for (Map<Integer, Long> kindStatuses : statuses.values()) {
+            for (Map.Entry<Integer, Long> status : kindStatuses.entrySet()) {
+                if (status.getKey() == 0 || status.getKey() >= 500) {
+                    errors += status.getValue();
+                }
+            }
+        }
+        return errors;
+    }
+
+    public double getErrorRate() {
+        return latencies.length == 0 ? 0 : (double) getErrors() / latencies.length;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("Requests:   %d in %.1f s, %.0f requests/s%n", getRequests(), duration.toMillis() / 1000.0,
+                getThroughput());
+        out.printf("Latency:    p50 %s, p99 %s, p999 %s, max %s%n", millis(getLatency(50)), millis(getLatency(99)),
+                millis(getLatency(99.9)), millis(getLatency(100)));
+        out.printf("Errors:     %d (%.3f %%)%n", getErrors(), getErrorRate() * 100);
+        out.println("Responses by customer kind and status:");
+        statuses.forEach((kind, kindStatuses) -> out.printf("  %-13s %s%n", kind, new TreeMap<>(kindStatuses)));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+}
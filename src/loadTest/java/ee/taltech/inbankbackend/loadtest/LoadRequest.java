@@ -0,0 +1,14 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A serialized decision request of the load test and the kind of customer that sends it.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadRequest {
+    private final CustomerKind customerKind;
+    private final byte[] body;
+}
@@ -0,0 +1,88 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import ee.taltech.inbankbackend.InbankBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays a traffic mix against the /loan/decision endpoint and prints throughput, latency percentiles and error
+ * rates. Without --target the application is started in the same JVM on a random port and stopped afterwards.
+ * <p>
+ * Options: --target=http://host:port, --mix=traffic-mix.json, --concurrency=16, --rate=0 (requests/s, 0 for as
+ * fast as possible), --warmup=10s, --duration=30s, --requests=200000 (distinct request bodies), --seed=1.
+ * Any other --option is passed on to the started application, e.g. --spring.main.web-application-type=reactive.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            switch (name) {
+                case "target", "mix", "concurrency", "rate", "warmup", "duration", "requests", "seed" ->
+                        options.put(name, arg.substring(separator + 1));
+                default -> applicationArgs.add(arg);
+            }
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new ParameterNamesModule());
+        TrafficMix mix;
+        try (InputStream json = options.containsKey("mix")
+                ? Files.newInputStream(Path.of(options.get("mix")))
+                : LoadTest.class.getResourceAsStream("/traffic-mix.json")) {
+            mix = TrafficMix.read(objectMapper, json);
+        }
+        List<LoadRequest> requests = mix.drawRequests(objectMapper,
+                Integer.parseInt(options.getOrDefault("requests", "200000")),
+                new Random(Long.parseLong(options.getOrDefault("seed", "1"))));
+
+        ConfigurableApplicationContext application = null;
+        String target = options.get("target");
+        if (target == null) {
+            applicationArgs.add("--server.port=0");
+            application = new SpringApplicationBuilder(InbankBackendApplication.class)
+                    .run(applicationArgs.toArray(String[]::new));
+            target = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        }
+
+        try {
+            int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LoadGenerator generator = new LoadGenerator(httpClient, URI.create(target + "/loan/decision"), requests,
+                    concurrency, Integer.parseInt(options.getOrDefault("rate", "0")));
+
+            System.out.printf("Sending %s to %s from %d workers%n",
+                    options.containsKey("rate") ? options.get("rate") + " requests/s" : "requests", target,
+                    concurrency);
+            generator.run(DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s")),
+                    DurationStyle.detectAndParse(options.getOrDefault("duration", "30s")))
+                    .print(System.out);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how fast the service starts as a jar on the JVM and as a native image: the time from starting the process
+ * until it accepts connections, and the latency of the first decision request after that, which includes
+ * initializing the dispatcher servlet and, on the JVM, running the decision code interpreted.
+ * Every run starts a fresh process; the variants take turns, after one unmeasured run each.
+ * <p>
+ * Options: --jvm=build/libs/inbank-backend-1.0.jar, --native=build/native/nativeCompile/inbank-backend, --runs=5,
+ * --timeout=60s. Any other --option is passed on to the started service.
+ */
+public class StartupBenchmark {
+    private static final String DECISION_REQUEST =
+            "{\"personalCode\":\"49002010976\",\"loanAmount\":4000,\"loanPeriod\":24}";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            switch (name) {
+                case "jvm", "native", "runs", "timeout" -> options.put(name, arg.substring(separator + 1));
+                default -> applicationArgs.add(arg);
+            }
+        }
+
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        if (options.containsKey("jvm")) {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            commands.put("JVM", List.of(java, "-jar", options.get("jvm")));
+        }
+        if (options.containsKey("native")) {
+            commands.put("native", List.of(options.get("native")));
+        }
+        if (commands.isEmpty()) {
+            throw new IllegalArgumentException("Pass --jvm=<jar> and/or --native=<executable>");
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Duration timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "60s"));
+
+        Map<String, long[]> startupTimes = new LinkedHashMap<>();
+        Map<String, long[]> firstRequestTimes = new LinkedHashMap<>();
+        commands.keySet().forEach(variant -> {
+            startupTimes.put(variant, new long[runs]);
+            firstRequestTimes.put(variant, new long[runs]);
+        });
+        for (int run = -1; run < runs; run++) {
+            for (Map.Entry<String, List<String>> command : commands.entrySet()) {
+                long[] times = measure(command.getKey(), command.getValue(), applicationArgs, timeout);
+                if (run >= 0) {
+                    startupTimes.get(command.getKey())[run] = times[0];
+                    firstRequestTimes.get(command.getKey())[run] = times[1];
+                }
+            }
+        }
+
+        System.out.printf("%d runs, median (min - max)%n", runs);
+        for (String variant : commands.keySet()) {
+            System.out.printf("%-7s startup %s, first request %s%n", variant,
+                    summary(startupTimes.get(variant)), summary(firstRequestTimes.get(variant)));
+        }
+    }
+
+    /**
+     * Starts the service, waits until it accepts connections, sends one decision request and stops the service.
+     * @return Nanoseconds until the service accepted a connection and nanoseconds the first request took
+     */
+    private static long[] measure(String variant, List<String> command, List<String> applicationArgs,
+                                  Duration timeout) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> processCommand = new ArrayList<>(command);
+        processCommand.add("--server.port=" + port);
+        processCommand.addAll(applicationArgs);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest decision = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/loan/decision"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(DECISION_REQUEST))
+                .timeout(timeout)
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(processCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (!accepts(port)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant + " exited with " + process.exitValue());
+                }
+                if (System.nanoTime() - start > timeout.toNanos()) {
+                    throw new IllegalStateException(variant + " did not start within " + timeout);
+                }
+                Thread.sleep(5);
+            }
+            long started = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(decision, HttpResponse.BodyHandlers.discarding());
+            long answered = System.nanoTime();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(variant + " answered the first request with " + response.statusCode());
+            }
+            return new long[]{started - start, answered - started};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static boolean accepts(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port), 100);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String summary(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("%s (%s - %s)", millis(sorted[sorted.length / 2]), millis(sorted[0]),
+                millis(sorted[sorted.length - 1]));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,123 @@
+package ee.taltech.inbankbackend.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.inbankbackend.endpoint.DecisionRequest;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The share of each kind of customer, loan amount and loan period in the traffic, recorded from production and
+ * loaded from a JSON file. Weights are relative: {"SEGMENT_1": 3, "DEBT": 1} sends three segment 1 requests for
+ * every request of a customer in debt. Amounts and periods outside the policy limits are allowed, they are part of
+ * real traffic.
+ */
+@Getter
+public class TrafficMix {
+    private final int customers;
+    private final Map<CustomerKind, Integer> customerKinds;
+    private final Map<Long, Integer> loanAmounts;
+    private final Map<Integer, Integer> loanPeriods;
+
+    /**
+     * @param customers Number of distinct customers sending requests, which decides the hit rate of the caches
+     * @param customerKinds Weight of each kind of customer
+     * @param loanAmounts Weight of each requested loan amount
+     * @param loanPeriods Weight of each requested loan period
+     */
+    @JsonCreator
+    public TrafficMix(@JsonProperty("customers") int customers,
+                      @JsonProperty("customerKinds") Map<CustomerKind, Integer> customerKinds,
+                      @JsonProperty("loanAmounts") Map<Long, Integer> loanAmounts,
+                      @JsonProperty("loanPeriods") Map<Integer, Integer> loanPeriods) {
+        if (customers < 1 || customerKinds.isEmpty() || loanAmounts.isEmpty() || loanPeriods.isEmpty()) {
+            throw new IllegalArgumentException("A traffic mix needs customers, customer kinds, amounts and periods");
+        }
+        this.customers = customers;
+        this.customerKinds = Map.copyOf(customerKinds);
+        this.loanAmounts = Map.copyOf(loanAmounts);
+        this.loanPeriods = Map.copyOf(loanPeriods);
+    }
+
+    public static TrafficMix read(ObjectMapper objectMapper, InputStream json) throws IOException {
+        return objectMapper.readValue(json, TrafficMix.class);
+    }
+
+    /**
+     * Draws the customers and then the requests from the mix. The bodies are serialized up front, so sending a
+     * request costs the load generator no more than picking one.
+     * @param objectMapper Mapper serializing the request bodies
+     * @param requestCount Number of requests to draw
+     * @param random Source of randomness, seeded for a repeatable run
+     * @return The drawn requests
+     */
+    public List<LoadRequest> drawRequests(ObjectMapper objectMapper, int requestCount, Random random)
+            throws IOException {
+        LocalDate today = LocalDate.now();
+        Weighted<CustomerKind> kinds = new Weighted<>(customerKinds);
+        Weighted<Long> amounts = new Weighted<>(loanAmounts);
+        Weighted<Integer> periods = new Weighted<>(loanPeriods);
+
+        CustomerKind[] customerKind = new CustomerKind[customers];
+        String[] personalCode = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            customerKind[i] = kinds.draw(random);
+            personalCode[i] = customerKind[i].randomPersonalCode(random, today);
+        }
+
+        List<LoadRequest> requests = new ArrayList<>(requestCount);
+        for (int i = 0; i < requestCount; i++) {
+            int customer = random.nextInt(customers);
+            DecisionRequest request = new DecisionRequest(personalCode[customer], amounts.draw(random),
+                    periods.draw(random));
+            requests.add(new LoadRequest(customerKind[customer], objectMapper.writeValueAsBytes(request)));
+        }
+        return requests;
+    }
+
+    /**
+     * Draws values by cumulative weight.
+     */
+    private static final class Weighted<T> {
+        private final List<T> values;
+        private final int[] cumulativeWeights;
+
+        private Weighted(Map<T, Integer> weights) {
+            values = new ArrayList<>(weights.keySet());
+            cumulativeWeights = new int[values.size()];
+            int total = 0;
+            for (int i = 0; i < values.size(); i++) {
+                int weight = weights.get(values.get(i));
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight of " + values.get(i));
+                }
+                total += weight;
+                cumulativeWeights[i] = total;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("All weights of " + values + " are 0");
+            }
+        }
+
+        private T draw(Random random) {
+            int index = Arrays.binarySearch(cumulativeWeights, random.nextInt(cumulativeWeights[values.size() - 1]) + 1);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            // Skip values of weight 0 sharing the cumulative weight of the value before them
+            while (index > 0 && cumulativeWeights[index - 1] == cumulativeWeights[index]) {
+                index--;
+            }
+            return values.get(index);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ee.taltech.inbankbackend.audit;
+
+/**
+ * Retains loan decisions for auditing. Recording must be cheap enough for the request path, so implementations hand
+ * the record over to be written in the background.
+ */
+@FunctionalInterface
+public interface AuditJournal {
+    /**
+     * Discards every record, used when no audit journal file is configured.
+     */
+    AuditJournal DISABLED = record -> {
+    };
+
+    /**
+     * @param record The decision to retain
+     */
+    void record(AuditRecord record);
+}
@@ -0,0 +1,185 @@
+package ee.taltech.inbankbackend.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the records of an audit journal written by the FileAuditJournal. The file is memory-mapped in windows, so
+ * journals of any size are read without copying them onto the heap. A record torn by a crash while it was appended,
+ * one that runs past the end of the file or is followed only by zero bytes, ends the journal. A corrupted record
+ * anywhere else is reported instead of silently ending the journal early.
+ * <p>
+ * Run the main method with the path of a journal to print its records, one tab-separated line per decision:
+ * timestamp, policy version, country, personal ID code, loan amount, loan period, approved loan amount, approved loan period,
+ * error message and the time taken to decide in microseconds.
+ */
+public final class AuditJournalReader {
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final int ZERO_CHECK_LENGTH = 64 * 1024;
+
+    private AuditJournalReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: AuditJournalReader <journal file>");
+            System.exit(2);
+        }
+        long records = read(Path.of(args[0]), record -> System.out.println(String.join("\t",
+                Instant.ofEpochMilli(record.getTimestamp()).toString(),
+                String.valueOf(record.getPolicyVersion()),
+                record.getCountry().name(),
+                record.getPersonalCode(),
+                String.valueOf(record.getLoanAmount()),
+                String.valueOf(record.getLoanPeriod()),
+                String.valueOf(record.getApprovedLoanAmount()),
+                String.valueOf(record.getApprovedLoanPeriod()),
+                String.valueOf(record.getErrorMessage()),
+                String.valueOf(record.getDurationNanos() / 1000))));
+        System.err.println(records + " records");
+    }
+
+    /**
+     * @param file Audit journal to read
+     * @param consumer Receives every record in the order they were written
+     * @return Number of records read
+     * @throws IOException If the file cannot be read or is not an audit journal of a supported format version
+     * @throws CorruptedJournalException If a record before the end of the journal is corrupted, the records before it
+     * have been read
+     */
+    public static long read(Path file, Consumer<AuditRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] records = new long[1];
+            scan(channel, 1, record -> {
+                records[0]++;
+                consumer.accept(record);
+            });
+            return records[0];
+        }
+    }
+
+    /**
+     * @return The length of the journal up to the end of its last complete record, without a record torn at its end
+     * @throws IOException If the file cannot be read or is not an audit journal of the current format version
+     * @throws CorruptedJournalException If a record before the end of the journal is corrupted
+     */
+    static long validLength(FileChannel channel) throws IOException {
+        return scan(channel, FileAuditJournal.FORMAT_VERSION, null);
+    }
+
+    /**
+     * @param minimumVersion Oldest format version of the journal that is accepted
+     */
+    private static long scan(FileChannel channel, int minimumVersion, Consumer<AuditRecord> consumer)
+            throws IOException {
+        Window window = new Window(channel);
+        ByteBuffer header = window.slice(0, FileAuditJournal.FILE_HEADER_LENGTH);
+        if (header == null) {
+            throw new IOException("Not an audit journal");
+        }
+        byte[] magic = new byte[FileAuditJournal.MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, FileAuditJournal.MAGIC)) {
+            throw new IOException("Not an audit journal");
+        }
+        int formatVersion = header.getInt();
+        if (formatVersion < minimumVersion || formatVersion > FileAuditJournal.FORMAT_VERSION) {
+            throw new IOException("Unsupported audit journal format version " + formatVersion);
+        }
+
+        CRC32C crc = new CRC32C();
+        long offset = FileAuditJournal.FILE_HEADER_LENGTH;
+        while (true) {
+            ByteBuffer recordHeader = window.slice(offset, FileAuditJournal.RECORD_HEADER_LENGTH);
+            if (recordHeader == null) {
+                return offset;
+            }
+            int length = recordHeader.getInt();
+            int checksum = recordHeader.getInt();
+            if (length <= 0 || length > AuditRecord.MAXIMUM_ENCODED_LENGTH) {
+                return tornRecord(window, offset, offset);
+            }
+            ByteBuffer payload = window.slice(offset + FileAuditJournal.RECORD_HEADER_LENGTH, length);
+            if (payload == null) {
+                return offset;
+            }
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return tornRecord(window, offset, offset + FileAuditJournal.RECORD_HEADER_LENGTH + length);
+            }
+            if (consumer != null) {
+                consumer.accept(AuditRecord.readFrom(payload, formatVersion));
+            }
+            offset += FileAuditJournal.RECORD_HEADER_LENGTH + length;
+        }
+    }
+
+    /**
+     * An invalid record is the torn end of the journal if only zero bytes follow it, e.g. blocks the file system had
+     * allocated before the crash.
+     * @param offset Start of the invalid record
+     * @param end End of the invalid record
+     * @return The offset of the invalid record, where the journal ends
+     * @throws CorruptedJournalException If anything else follows the invalid record
+     */
+    private static long tornRecord(Window window, long offset, long end) throws IOException {
+        for (long position = end; position < window.size; position += ZERO_CHECK_LENGTH) {
+            ByteBuffer bytes = window.slice(position, (int) Math.min(ZERO_CHECK_LENGTH, window.size - position));
+            while (bytes.hasRemaining()) {
+                if (bytes.get() != 0) {
+                    throw new CorruptedJournalException("Corrupted audit record at offset " + offset + " of "
+                            + window.size + " bytes");
+                }
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * A record before the end of the journal does not match its checksum or has an impossible length.
+     */
+    public static final class CorruptedJournalException extends IOException {
+        private CorruptedJournalException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A read-only mapping of part of the file, moved forward whenever a slice does not fit into it.
+     */
+    private static final class Window {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer buffer;
+        private long start;
+
+        private Window(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /**
+         * @return The bytes from offset to offset + length, or null if the file ends before them
+         */
+        private ByteBuffer slice(long offset, int length) throws IOException {
+            if (offset + length > size) {
+                return null;
+            }
+            if (buffer == null || offset < start || offset + length > start + buffer.capacity()) {
+                start = offset;
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start,
+                        Math.max(WINDOW_SIZE, length)));
+            }
+            return buffer.slice((int) (offset - start), length);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ee.taltech.inbankbackend.audit;
+
+import ee.taltech.inbankbackend.service.Country;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A loan decision as it is retained in the audit journal: the request, the decision or the rejection, the decision
+ * policy version it was decided with and how long deciding took.
+ * Records are encoded as a fixed part of longs, ints and the two letters of the country followed by the personal ID
+ * code and the error message as UTF-8 strings prefixed with their length, -1 for a missing string or loan. Records of
+ * format version 1 journals have no country and are read as Estonian.
+ */
+@Getter
+@AllArgsConstructor
+public class AuditRecord {
+    private static final int FIXED_LENGTH = 4 * Long.BYTES + 3 * Integer.BYTES + 2 + 2 * Short.BYTES;
+    public static final int MAXIMUM_ENCODED_LENGTH = FIXED_LENGTH + 2 * Short.MAX_VALUE;
+
+    private final long timestamp;
+    private final long policyVersion;
+    private final Country country;
+    private final String personalCode;
+    private final long loanAmount;
+    private final int loanPeriod;
+    private final Integer approvedLoanAmount;
+    private final Integer approvedLoanPeriod;
+    private final String errorMessage;
+    private final long durationNanos;
+
+    public boolean isApproved() {
+        return errorMessage == null;
+    }
+
+    /**
+     * @return The largest number of bytes {@link #writeTo(ByteBuffer)} writes
+     */
+    public int maximumEncodedLength() {
+        return FIXED_LENGTH + maximumEncodedLength(personalCode) + maximumEncodedLength(errorMessage);
+    }
+
+    /**
+     * Writes the record at the buffer's position, strings longer than Short.MAX_VALUE bytes are truncated after their
+     * last complete character.
+     * @param buffer Buffer with at least {@link #maximumEncodedLength()} bytes remaining
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(timestamp)
+                .putLong(policyVersion)
+                .putLong(durationNanos)
+                .putLong(loanAmount)
+                .putInt(loanPeriod)
+                .putInt(approvedLoanAmount == null ? -1 : approvedLoanAmount)
+                .putInt(approvedLoanPeriod == null ? -1 : approvedLoanPeriod)
+                .put((byte) country.name().charAt(0))
+                .put((byte) country.name().charAt(1));
+        putString(buffer, personalCode);
+        putString(buffer, errorMessage);
+    }
+
+    /**
+     * Reads a record written by {@link #writeTo(ByteBuffer)} at the buffer's position.
+     * @throws java.nio.BufferUnderflowException If the buffer ends before the record does
+     */
+    public static AuditRecord readFrom(ByteBuffer buffer) {
+        return readFrom(buffer, FileAuditJournal.FORMAT_VERSION);
+    }
+
+    /**
+     * Reads a record of a journal of the given format version at the buffer's position.
+     * @throws java.nio.BufferUnderflowException If the buffer ends before the record does
+     */
+    static AuditRecord readFrom(ByteBuffer buffer, int formatVersion) {
+        long timestamp = buffer.getLong();
+        long policyVersion = buffer.getLong();
+        long durationNanos = buffer.getLong();
+        long loanAmount = buffer.getLong();
+        int loanPeriod = buffer.getInt();
+        int approvedLoanAmount = buffer.getInt();
+        int approvedLoanPeriod = buffer.getInt();
+        Country country = formatVersion < 2 ? Country.EE
+                : Country.valueOf(new String(new byte[] {buffer.get(), buffer.get()}, StandardCharsets.US_ASCII));
+        String personalCode = getString(buffer);
+        String errorMessage = getString(buffer);
+
+        return new AuditRecord(timestamp, policyVersion, country, personalCode, loanAmount, loanPeriod,
+                approvedLoanAmount < 0 ? null : approvedLoanAmount,
+                approvedLoanPeriod < 0 ? null : approvedLoanPeriod, errorMessage, durationNanos);
+    }
+
+    private static int maximumEncodedLength(String value) {
+        // A char takes at most three UTF-8 bytes, surrogate pairs take four bytes for two chars
+        return value == null ? 0 : Math.min(Short.MAX_VALUE, value.length() * 3);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        if (length > Short.MAX_VALUE) {
+            // Cut before the first byte of the character that does not fit, continuation bytes are 10xxxxxx
+            length = Short.MAX_VALUE;
+            while ((bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+        }
+        buffer.putShort((short) length).put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,84 @@
+package ee.taltech.inbankbackend.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue of audit records for many producers and a single consumer.
+ * Each slot carries a sequence number telling whose turn it is: a producer claims the next position with a CAS on
+ * the tail and publishes its record by advancing the slot's sequence, the consumer takes the record once the sequence
+ * says it is published and hands the slot back to the producers one lap ahead. Offering never blocks or allocates.
+ */
+class AuditRingBuffer {
+    private final AuditRecord[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity Number of records the buffer holds, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        records = new AuditRecord[size];
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds a record unless the buffer is full. Safe to call from any thread.
+     * @return Whether the record was added
+     */
+    boolean offer(AuditRecord record) {
+        long position = tail.get();
+        while (true) {
+            long difference = sequences.get((int) position & mask) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        int index = (int) position & mask;
+        records[index] = record;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Takes the oldest record. Must only be called from the consumer thread.
+     * @return The oldest record, or null if there is none
+     */
+    AuditRecord poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        AuditRecord record = records[index];
+        records[index] = null;
+        sequences.lazySet(index, position + records.length);
+        head = position + 1;
+        return record;
+    }
+
+    /**
+     * @return Number of records offered but not taken yet, may be stale by the time it is used
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return records.length;
+    }
+}
@@ -0,0 +1,284 @@
+package ee.taltech.inbankbackend.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends audit records to a journal file without doing any I/O on the request path. Recording a decision only puts
+ * the record into a lock-free ring buffer; a single writer thread drains it, encodes the records into a batch and
+ * appends the batch to the file with one write, forcing it to disk at most every fsync interval and when the journal
+ * is closed. When the ring buffer is full, recording either waits for the writer (BLOCK) or drops the record and
+ * counts it (DROP). A record that cannot be encoded is dropped and counted without stopping the writer; should the
+ * writer thread still die, the journal is marked failed and drops every record instead of blocking requests.
+ * <p>
+ * The file starts with the magic bytes "INBAUDIT" and the format version, followed by the records, each prefixed
+ * with its length and CRC-32C. A record cut short by a crash is truncated when the journal is opened again.
+ */
+@Slf4j
+public class FileAuditJournal implements AuditJournal, AutoCloseable {
+    static final byte[] MAGIC = "INBAUDIT".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * Version 2 added the country of the personal ID code to the records.
+     */
+    static final int FORMAT_VERSION = 2;
+    static final int FILE_HEADER_LENGTH = MAGIC.length + Integer.BYTES;
+    static final int RECORD_HEADER_LENGTH = 2 * Integer.BYTES;
+
+    private static final int BATCH_SIZE = 256 * 1024;
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(1).toNanos();
+    private static final long MINIMUM_BLOCKED_PARK_NANOS = Duration.ofMillis(1).toNanos() / 100;
+    private static final long MAXIMUM_BLOCKED_PARK_NANOS = Duration.ofMillis(1).toNanos();
+
+    /**
+     * What recording does when the ring buffer is full.
+     */
+    public enum Overflow {
+        BLOCK,
+        DROP;
+
+        public static Overflow parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final AuditRingBuffer ringBuffer;
+    private final Overflow overflow;
+    private final long fsyncIntervalNanos;
+    private final Counter overflowDrops;
+    private final Counter writeErrorDrops;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final Thread writer;
+    private int batchRecords;
+    private volatile boolean closed;
+    private volatile boolean failed;
+
+    /**
+     * Opens the journal, creating the file if it does not exist, and starts the writer thread.
+     * @param meterRegistry Registry of the dropped record counters and the pending record gauge
+     * @param file Journal file to append to
+     * @param bufferSize Number of records the ring buffer holds, rounded up to a power of two
+     * @param overflow What recording does when the ring buffer is full
+     * @param fsyncInterval Longest time written records may stay in the page cache before being forced to disk
+     * @throws IOException If the file cannot be opened or is not an audit journal
+     */
+    public FileAuditJournal(MeterRegistry meterRegistry, Path file, int bufferSize, Overflow overflow,
+                            Duration fsyncInterval) throws IOException {
+        this.file = file;
+        this.ringBuffer = new AuditRingBuffer(bufferSize);
+        this.overflow = overflow;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.channel = open(file);
+        overflowDrops = droppedCounter(meterRegistry, "overflow");
+        writeErrorDrops = droppedCounter(meterRegistry, "write_error");
+        Gauge.builder("decision.audit.pending", ringBuffer, AuditRingBuffer::size)
+                .description("Number of audit records waiting to be written")
+                .register(meterRegistry);
+
+        writer = new Thread(this::writeRecords, "audit-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Hands the record over to the writer thread. Never does any I/O, but waits for space in the ring buffer when it
+     * is full and the overflow policy is BLOCK, parking for twice as long after every failed attempt up to 1 ms.
+     * @param record The decision to retain
+     */
+    @Override
+    public void record(AuditRecord record) {
+        if (failed) {
+            writeErrorDrops.increment();
+            return;
+        }
+        if (ringBuffer.offer(record)) {
+            return;
+        }
+        if (overflow == Overflow.BLOCK) {
+            long parkNanos = MINIMUM_BLOCKED_PARK_NANOS;
+            while (!closed && !failed) {
+                LockSupport.parkNanos(parkNanos);
+                if (ringBuffer.offer(record)) {
+                    return;
+                }
+                parkNanos = Math.min(parkNanos * 2, MAXIMUM_BLOCKED_PARK_NANOS);
+            }
+        }
+        (failed ? writeErrorDrops : overflowDrops).increment();
+    }
+
+    /**
+     * @return True if the writer thread died and records are dropped
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Stops accepting records, writes and forces the records already recorded and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void writeRecords() {
+        try {
+            drainRecords();
+        } catch (Throwable e) {
+            failed = true;
+            log.error("Audit journal writer of {} stopped, dropping all further records", file, e);
+            throw e;
+        }
+    }
+
+    private void drainRecords() {
+        long lastSync = System.nanoTime();
+        boolean unsynced = false;
+
+        while (true) {
+            boolean closing = closed;
+            int written = 0;
+            for (AuditRecord record = ringBuffer.poll(); record != null; record = ringBuffer.poll()) {
+                append(record);
+                written++;
+            }
+            flush();
+            unsynced |= written > 0;
+
+            if (unsynced && (closing || System.nanoTime() - lastSync >= fsyncIntervalNanos)) {
+                sync();
+                lastSync = System.nanoTime();
+                unsynced = false;
+            }
+            if (closing) {
+                return;
+            }
+            if (written == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Encodes the record into the batch, preceded by its length and checksum. A record that cannot be encoded is
+     * dropped, leaving the batch as it was.
+     */
+    private void append(AuditRecord record) {
+        if (batch.remaining() < RECORD_HEADER_LENGTH + record.maximumEncodedLength()) {
+            flush();
+        }
+        int start = batch.position();
+        try {
+            batch.position(start + RECORD_HEADER_LENGTH);
+            record.writeTo(batch);
+        } catch (RuntimeException e) {
+            batch.limit(batch.capacity()).position(start);
+            log.error("Could not encode an audit record for {}", file, e);
+            writeErrorDrops.increment();
+            return;
+        }
+        int end = batch.position();
+
+        crc.reset();
+        crc.update(batch.position(start + RECORD_HEADER_LENGTH).limit(end));
+        batch.limit(batch.capacity()).position(end);
+        batch.putInt(start, end - start - RECORD_HEADER_LENGTH);
+        batch.putInt(start + Integer.BYTES, (int) crc.getValue());
+        batchRecords++;
+    }
+
+    private void flush() {
+        if (batchRecords == 0) {
+            return;
+        }
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+        } catch (IOException e) {
+            log.error("Could not write {} audit records to {}", batchRecords, file, e);
+            writeErrorDrops.increment(batchRecords);
+        }
+        batch.clear();
+        batchRecords = 0;
+    }
+
+    private void sync() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("Could not force audit records to {}", file, e);
+        }
+    }
+
+    /**
+     * Opens the journal for appending: writes the file header to a new file, or truncates a record torn at the end of
+     * an existing journal. A journal with a corrupted record before its end is moved aside untouched and a new journal
+     * is started. Journals of an older format version are not appended to and have to be moved away.
+     */
+    private static FileChannel open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return prepare(file, channel);
+        } catch (AuditJournalReader.CorruptedJournalException e) {
+            channel.close();
+            Path corrupted = file.resolveSibling(file.getFileName() + ".corrupted-" + System.currentTimeMillis());
+            Files.move(file, corrupted);
+            log.error("Moved the audit journal {} to {} and started a new one: {}", file, corrupted, e.getMessage());
+            return open(file);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel prepare(Path file, FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH).put(MAGIC).putInt(FORMAT_VERSION);
+            channel.write(header.flip());
+            channel.force(true);
+        } else {
+            long validLength = AuditJournalReader.validLength(channel);
+            if (validLength < channel.size()) {
+                log.warn("Truncating {} bytes of an audit record torn at the end of {}",
+                        channel.size() - validLength, file);
+                channel.truncate(validLength);
+            }
+        }
+        channel.position(channel.size());
+        return channel;
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("decision.audit.dropped")
+                .description("Number of audit records that were not written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package ee.taltech.inbankbackend.config;
+
+import ee.taltech.inbankbackend.audit.AuditJournal;
+import ee.taltech.inbankbackend.audit.FileAuditJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Appends every loan decision to the audit journal at decision.audit.file when it is set, otherwise decisions are not
+ * audited.
+ */
+@Configuration
+public class AuditJournalConfiguration {
+
+    @Bean
+    @ConditionalOnProperty("decision.audit.file")
+    public AuditJournal fileAuditJournal(
+            MeterRegistry meterRegistry,
+            @Value("${decision.audit.file}") Path file,
+            @Value("${decision.audit.buffer-size:65536}") int bufferSize,
+            @Value("${decision.audit.overflow:block}") String overflow,
+            @Value("${decision.audit.fsync-interval:1s}") Duration fsyncInterval) throws IOException {
+        return new FileAuditJournal(meterRegistry, file, bufferSize, FileAuditJournal.Overflow.parse(overflow),
+                fsyncInterval);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AuditJournal.class)
+    public AuditJournal disabledAuditJournal() {
+        return AuditJournal.DISABLED;
+    }
+}
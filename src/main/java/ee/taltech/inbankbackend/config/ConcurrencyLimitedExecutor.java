@@ -0,0 +1,39 @@
+package ee.taltech.inbankbackend.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs tasks on the delegate executor, but lets at most a fixed number of them run at the same time.
+ * Tasks over the limit wait for a permit on their own thread, which is cheap when the delegate runs every task on a
+ * new virtual thread.
+ */
+public class ConcurrencyLimitedExecutor implements Executor {
+    private final Executor delegate;
+    private final Semaphore permits;
+
+    /**
+     * @param delegate Executor running the tasks
+     * @param maxConcurrency Maximum number of tasks running at the same time, zero or less for no limit
+     */
+    public ConcurrencyLimitedExecutor(Executor delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (permits == null) {
+            delegate.execute(task);
+            return;
+        }
+        delegate.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package ee.taltech.inbankbackend.config;
+
+import ee.taltech.inbankbackend.service.CreditModifierProvider;
+import ee.taltech.inbankbackend.service.RegistryCreditModifierProvider;
+import ee.taltech.inbankbackend.service.SegmentCreditModifierProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Fetches credit modifiers from the credit registry at decision.credit-registry.url when it is set, otherwise
+ * derives them from the personal ID code and the segments of the decision policy.
+ */
+@Configuration
+public class CreditModifierProviderConfiguration {
+
+    @Bean
+    @ConditionalOnProperty("decision.credit-registry.url")
+    public CreditModifierProvider registryCreditModifierProvider(
+            WebClient.Builder webClientBuilder,
+            @Value("${decision.credit-registry.url}") String url,
+            @Value("${decision.credit-registry.max-connections:50}") int maxConnections,
+            @Value("${decision.credit-registry.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${decision.credit-registry.response-timeout:2s}") Duration responseTimeout) {
+        return new RegistryCreditModifierProvider(webClientBuilder, url, maxConnections, connectTimeout,
+                responseTimeout);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CreditModifierProvider.class)
+    public CreditModifierProvider segmentCreditModifierProvider(DecisionPolicyHolder policyHolder) {
+        return new SegmentCreditModifierProvider(policyHolder);
+    }
+}
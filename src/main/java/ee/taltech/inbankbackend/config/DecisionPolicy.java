@@ -0,0 +1,175 @@
+package ee.taltech.inbankbackend.config;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The rules of the decision engine: loan limits, age limits, the approval threshold and the customer segments.
+ * Policies are immutable and validated when they are created; a new version replaces the whole policy.
+ * The loan amount and loan period grids are derived once per policy. Loans must fit the packed decisions of the
+ * DecisionTable and the grid must be small enough to precompute, so a policy the table cannot be built for is rejected
+ * before it reaches any preparer.
+ */
+@Getter
+public class DecisionPolicy {
+    /**
+     * The built-in policy, used until a policy file is loaded.
+     */
+    public static final DecisionPolicy DEFAULT = new DecisionPolicy(0, 2000, 10000, 100, 12, 48, 6, 18, 78 - 4, 0.1,
+            List.of(new Segment(0, 0), new Segment(75, 100), new Segment(85, 300), new Segment(95, 1000)));
+
+    /**
+     * Largest loan amount and loan period of a packed decision, 22 and 8 bits.
+     */
+    public static final int MAXIMUM_SUPPORTED_LOAN_AMOUNT = (1 << 22) - 1;
+    public static final int MAXIMUM_SUPPORTED_LOAN_PERIOD = (1 << 8) - 1;
+    /**
+     * Largest number of precomputed decisions, credit modifiers x loan amounts x loan periods.
+     */
+    public static final long MAXIMUM_GRID_SIZE = 1 << 22;
+
+    private final long version;
+    private final int minimumLoanAmount;
+    private final int maximumLoanAmount;
+    private final int loanAmountStep;
+    private final int minimumLoanPeriod;
+    private final int maximumLoanPeriod;
+    private final int loanPeriodStep;
+    private final int minimumAge;
+    private final int maximumAge;
+    private final double minimumCreditScore;
+    private final List<Segment> segments;
+
+    @JsonIgnore
+    private final int[] descendingLoanAmounts;
+    @JsonIgnore
+    private final int[] loanPeriods;
+    @JsonIgnore
+    private final int[] creditModifiers;
+
+    /**
+     * @param version Version of the policy, newer policies have higher versions
+     * @param minimumLoanAmount Smallest loan amount
+     * @param maximumLoanAmount Largest loan amount
+     * @param loanAmountStep Step the loan amount is lowered by when the requested amount is not approved
+     * @param minimumLoanPeriod Shortest loan period in months
+     * @param maximumLoanPeriod Longest loan period in months
+     * @param loanPeriodStep Step the loan period is raised by when the requested period is not enough
+     * @param minimumAge Age customers must have reached to get a loan
+     * @param maximumAge Oldest age at which customers still get a loan
+     * @param minimumCreditScore Lowest credit score of an approved loan
+     * @param segments Customer segments, ordered by the lowest last two digits of the personal ID code they start at
+     * @throws IllegalArgumentException If the policy is inconsistent
+     */
+    @JsonCreator
+    public DecisionPolicy(@JsonProperty("version") long version,
+                          @JsonProperty("minimumLoanAmount") int minimumLoanAmount,
+                          @JsonProperty("maximumLoanAmount") int maximumLoanAmount,
+                          @JsonProperty("loanAmountStep") int loanAmountStep,
+                          @JsonProperty("minimumLoanPeriod") int minimumLoanPeriod,
+                          @JsonProperty("maximumLoanPeriod") int maximumLoanPeriod,
+                          @JsonProperty("loanPeriodStep") int loanPeriodStep,
+                          @JsonProperty("minimumAge") int minimumAge,
+                          @JsonProperty("maximumAge") int maximumAge,
+                          @JsonProperty("minimumCreditScore") double minimumCreditScore,
+                          @JsonProperty("segments") List<Segment> segments) {
+        require(minimumLoanAmount > 0 && minimumLoanAmount <= maximumLoanAmount, "Invalid loan amount limits");
+        require(maximumLoanAmount <= MAXIMUM_SUPPORTED_LOAN_AMOUNT,
+                "Loans of up to " + MAXIMUM_SUPPORTED_LOAN_AMOUNT + " are supported");
+        require(loanAmountStep > 0 && (maximumLoanAmount - minimumLoanAmount) % loanAmountStep == 0,
+                "Loan amount limits must be a whole number of loan amount steps apart");
+        require(minimumLoanPeriod > 0 && minimumLoanPeriod <= maximumLoanPeriod, "Invalid loan period limits");
+        require(maximumLoanPeriod <= MAXIMUM_SUPPORTED_LOAN_PERIOD,
+                "Loan periods of up to " + MAXIMUM_SUPPORTED_LOAN_PERIOD + " months are supported");
+        require(loanPeriodStep > 0, "Invalid loan period step");
+        require(minimumAge >= 0 && minimumAge <= maximumAge, "Invalid age limits");
+        require(minimumCreditScore > 0, "Invalid minimum credit score");
+        require(segments != null && !segments.isEmpty() && segments.get(0).getFrom() == 0,
+                "Segments must start from 0");
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            require(segment.getFrom() < 100 && segment.getCreditModifier() >= 0, "Invalid segment " + i);
+            require(i == 0 || segment.getFrom() > segments.get(i - 1).getFrom(), "Segments must be ordered");
+        }
+        long gridSize = segments.stream().mapToInt(Segment::getCreditModifier).distinct().count()
+                * ((maximumLoanAmount - minimumLoanAmount) / loanAmountStep + 1)
+                * (maximumLoanPeriod - minimumLoanPeriod + 1);
+        require(gridSize <= MAXIMUM_GRID_SIZE, "Grids of up to " + MAXIMUM_GRID_SIZE + " decisions are supported");
+
+        this.version = version;
+        this.minimumLoanAmount = minimumLoanAmount;
+        this.maximumLoanAmount = maximumLoanAmount;
+        this.loanAmountStep = loanAmountStep;
+        this.minimumLoanPeriod = minimumLoanPeriod;
+        this.maximumLoanPeriod = maximumLoanPeriod;
+        this.loanPeriodStep = loanPeriodStep;
+        this.minimumAge = minimumAge;
+        this.maximumAge = maximumAge;
+        this.minimumCreditScore = minimumCreditScore;
+        this.segments = List.copyOf(segments);
+
+        descendingLoanAmounts = new int[(maximumLoanAmount - minimumLoanAmount) / loanAmountStep + 1];
+        for (int i = 0; i < descendingLoanAmounts.length; i++) {
+            descendingLoanAmounts[i] = maximumLoanAmount - i * loanAmountStep;
+        }
+        loanPeriods = new int[maximumLoanPeriod - minimumLoanPeriod + 1];
+        for (int i = 0; i < loanPeriods.length; i++) {
+            loanPeriods[i] = minimumLoanPeriod + i;
+        }
+        creditModifiers = segments.stream().mapToInt(Segment::getCreditModifier).distinct().toArray();
+    }
+
+    public boolean isLoanAmountValid(long loanAmount) {
+        return loanAmount >= minimumLoanAmount && loanAmount <= maximumLoanAmount;
+    }
+
+    public boolean isLoanPeriodValid(int loanPeriod) {
+        return loanPeriod >= minimumLoanPeriod && loanPeriod <= maximumLoanPeriod;
+    }
+
+    /**
+     * @return Every loan amount on the loan amount grid, from the largest to the smallest. Must not be modified.
+     */
+    public int[] getDescendingLoanAmounts() {
+        return descendingLoanAmounts;
+    }
+
+    /**
+     * @return Every loan period in months, from the shortest to the longest. Must not be modified.
+     */
+    public int[] getLoanPeriods() {
+        return loanPeriods;
+    }
+
+    /**
+     * @return The distinct credit modifiers of all segments. Must not be modified.
+     */
+    public int[] getCreditModifiers() {
+        return creditModifiers;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * A customer segment: personal ID codes ending with the two digits from up to the start of the next segment.
+     */
+    @Getter
+    public static class Segment {
+        private final int from;
+        private final int creditModifier;
+
+        @JsonCreator
+        public Segment(@JsonProperty("from") int from, @JsonProperty("creditModifier") int creditModifier) {
+            this.from = from;
+            this.creditModifier = creditModifier;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ee.taltech.inbankbackend.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Holds the decision policy in effect together with everything prepared for it. Requests read the policy once and
+ * use that version throughout. A new policy is published with a single reference swap after every registered preparer
+ * (e.g. the DecisionTable) has built its artifact for it, so the request path never waits for a rebuild and never sees
+ * the artifacts of a policy that is not in effect.
+ */
+@Component
+public class DecisionPolicyHolder {
+    private final List<Function<DecisionPolicy, ?>> preparers = new ArrayList<>();
+    private volatile PreparedPolicy prepared = new PreparedPolicy(DecisionPolicy.DEFAULT, new Object[0]);
+
+    public DecisionPolicy getPolicy() {
+        return prepared.policy;
+    }
+
+    /**
+     * Registers a preparer that builds its artifact for the policy in effect now and for every new policy before it
+     * is published. The preparer must not publish the artifact itself, it is read from the returned handle.
+     * @param preparer Builds whatever depends on the policy, throws IllegalArgumentException if it cannot
+     * @return Handle of the artifact of the policy in effect
+     */
+    public synchronized <T> PolicyArtifact<T> onUpdate(Function<DecisionPolicy, T> preparer) {
+        PreparedPolicy current = prepared;
+        Object[] artifacts = Arrays.copyOf(current.artifacts, current.artifacts.length + 1);
+        artifacts[current.artifacts.length] = preparer.apply(current.policy);
+        preparers.add(preparer);
+        prepared = new PreparedPolicy(current.policy, artifacts);
+        return new PolicyArtifact<>(this, current.artifacts.length);
+    }
+
+    /**
+     * Prepares and publishes a new policy with the artifacts of all preparers. The policy in effect and its artifacts
+     * are kept if any preparer rejects the new one.
+     * @param newPolicy The new policy, its version must be higher than the current version
+     * @throws IllegalArgumentException If the policy is not newer than the current one or a preparer rejects it
+     */
+    public synchronized void update(DecisionPolicy newPolicy) {
+        DecisionPolicy policy = prepared.policy;
+        if (newPolicy.getVersion() <= policy.getVersion()) {
+            throw new IllegalArgumentException("Policy version " + newPolicy.getVersion()
+                    + " is not newer than the current version " + policy.getVersion());
+        }
+        Object[] artifacts = new Object[preparers.size()];
+        for (int i = 0; i < artifacts.length; i++) {
+            artifacts[i] = preparers.get(i).apply(newPolicy);
+        }
+        prepared = new PreparedPolicy(newPolicy, artifacts);
+    }
+
+    /**
+     * A policy and the artifacts of all preparers, published together.
+     */
+    private static final class PreparedPolicy {
+        private final DecisionPolicy policy;
+        private final Object[] artifacts;
+
+        private PreparedPolicy(DecisionPolicy policy, Object[] artifacts) {
+            this.policy = policy;
+            this.artifacts = artifacts;
+        }
+    }
+
+    /**
+     * Reads the artifact one preparer built for the policy in effect.
+     * @param <T> Type of the artifact
+     */
+    public static final class PolicyArtifact<T> {
+        private final DecisionPolicyHolder policyHolder;
+        private final int index;
+
+        private PolicyArtifact(DecisionPolicyHolder policyHolder, int index) {
+            this.policyHolder = policyHolder;
+            this.index = index;
+        }
+
+        /**
+         * @return The artifact of the policy in effect
+         */
+        @SuppressWarnings("unchecked")
+        public T get() {
+            return (T) policyHolder.prepared.artifacts[index];
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ee.taltech.inbankbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the decision policy from the JSON file at decision.policy.file and reloads it whenever the file is modified,
+ * checking every decision.policy.reload-interval. The application does not start with an invalid policy file, an
+ * invalid file written later is logged and the policy in effect is kept.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("decision.policy.file")
+public class DecisionPolicyLoader implements DisposableBean {
+    private final DecisionPolicyHolder policyHolder;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+    private FileTime lastModified;
+
+    @Autowired
+    public DecisionPolicyLoader(DecisionPolicyHolder policyHolder, ObjectMapper objectMapper,
+                                @Value("${decision.policy.file}") Path file,
+                                @Value("${decision.policy.reload-interval:5s}") Duration reloadInterval) {
+        this.policyHolder = policyHolder;
+        this.objectMapper = objectMapper;
+        this.file = file;
+        load();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "decision-policy-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reloadIfModified, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the policy if the file was modified since it was last loaded, keeping the current policy if the file is
+     * invalid.
+     */
+    public synchronized void reloadIfModified() {
+        try {
+            if (!Files.getLastModifiedTime(file).equals(lastModified)) {
+                load();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Keeping decision policy version {}, could not load {}: {}",
+                    policyHolder.getPolicy().getVersion(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the policy file and publishes the policy unless its version is already in effect.
+     * @throws UncheckedIOException If the file cannot be read or parsed
+     * @throws IllegalArgumentException If the policy is invalid or older than the policy in effect
+     */
+    private synchronized void load() {
+        try {
+            // An invalid file is only reported once, not on every check until it is fixed
+            lastModified = Files.getLastModifiedTime(file);
+            DecisionPolicy policy = objectMapper.readValue(file.toFile(), DecisionPolicy.class);
+
+            if (policy.getVersion() != policyHolder.getPolicy().getVersion()) {
+                policyHolder.update(policy);
+                log.info("Loaded decision policy version {} from {}", policy.getVersion(), file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package ee.taltech.inbankbackend.config;
+
+import ee.taltech.inbankbackend.endpoint.DecisionRequest;
+import ee.taltech.inbankbackend.endpoint.DecisionResponse;
+import ee.taltech.inbankbackend.endpoint.OfferMatrixRequest;
+import ee.taltech.inbankbackend.endpoint.OfferMatrixResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection hints for the native image: Jackson binds the request and response bodies, the decision policy file
+ * and the credit registry's responses through their @JsonCreator constructors and Lombok-generated getters, which
+ * are only reachable by reflection. Bodies of the controller methods are registered by Spring as well; they are
+ * listed here too because the streaming endpoints read them with an ObjectReader of their own.
+ */
+public class DecisionRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String CREDIT_MODIFIER_RESPONSE =
+            "ee.taltech.inbankbackend.service.RegistryCreditModifierProvider$CreditModifierResponse";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                DecisionRequest.class, DecisionResponse.class, OfferMatrixRequest.class, OfferMatrixResponse.class,
+                DecisionPolicy.class);
+        hints.reflection().registerType(TypeReference.of(CREDIT_MODIFIER_RESPONSE),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+    }
+}
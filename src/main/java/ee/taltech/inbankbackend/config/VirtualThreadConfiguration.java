@@ -0,0 +1,43 @@
+package ee.taltech.inbankbackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every request on its own virtual thread instead of the Tomcat platform thread pool, so requests blocked on
+ * remote calls do not hold on to scarce platform threads. Enabled with decision.virtual-threads.enabled=true.
+ * The service is still built for Java 17, the virtual thread executor is looked up when the application starts and
+ * needs a Java 21 or newer runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "decision.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer(
+            @Value("${decision.virtual-threads.max-concurrency:0}") int maxConcurrency) {
+        ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(
+                new ConcurrencyLimitedExecutor(virtualThreadExecutor, maxConcurrency));
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     * @return The result of Executors.newVirtualThreadPerTaskExecutor()
+     * @throws IllegalStateException If the runtime does not support virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, running on Java "
+                    + Runtime.version().feature(), e);
+        }
+    }
+}
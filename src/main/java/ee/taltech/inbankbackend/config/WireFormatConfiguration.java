@@ -0,0 +1,84 @@
+package ee.taltech.inbankbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import ee.taltech.inbankbackend.endpoint.DecisionBinaryDecoder;
+import ee.taltech.inbankbackend.endpoint.DecisionBinaryEncoder;
+import ee.taltech.inbankbackend.endpoint.DecisionBinaryHttpMessageConverter;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Registers the binary encodings of the decision endpoint next to JSON: CBOR (application/cbor) and the compact
+ * format of the DecisionBinaryCodec (application/vnd.inbank.decision). CBOR is read and written with an object
+ * mapper configured by Spring Boot like the JSON one, so DecisionRequests are created through their constructor
+ * in both encodings.
+ */
+@Configuration
+public class WireFormatConfiguration {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public DecisionBinaryHttpMessageConverter decisionBinaryHttpMessageConverter() {
+        return new DecisionBinaryHttpMessageConverter();
+    }
+
+    /**
+     * The CBOR codecs are given their media type explicitly, without it they claim the JSON media types and take
+     * over JSON requests and responses from the JSON codecs registered after them.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = cborMapper(builder);
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new ValueCborEncoder(cborMapper));
+            configurer.customCodecs().register(new DecisionBinaryDecoder());
+            configurer.customCodecs().register(new DecisionBinaryEncoder());
+        };
+    }
+
+    /**
+     * Encodes every published value as a CBOR data item of its own. The Jackson2CborEncoder only encodes single
+     * values, but the WebFlux message writers stream even single response bodies through Encoder#encode.
+     */
+    private static class ValueCborEncoder extends Jackson2CborEncoder {
+
+        ValueCborEncoder(ObjectMapper cborMapper) {
+            super(cborMapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return Flux.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+        }
+    }
+
+    private static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+}
@@ -0,0 +1,173 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import ee.taltech.inbankbackend.service.Country;
+import org.springframework.http.MediaType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes decision requests and responses in the compact binary format of the decision endpoint
+ * (application/vnd.inbank.decision). All numbers are big-endian.<br><br>
+ * Request: version byte, personal code length (unsigned byte), personal code (ASCII), loan amount (int64),
+ * loan period (int32), country of the personal code (two ASCII letters). Version 1 requests end before the country
+ * and are decoded as Estonian.<br>
+ * Response: version byte, loan amount (int32, -1 if none), loan period (int32, -1 if none),
+ * error message length (unsigned int16, 0xFFFF if none), error message (UTF-8).<br><br>
+ * A request is a fixed shape of at most {@link #MAXIMUM_REQUEST_LENGTH} bytes, so it is decoded straight from the
+ * buffer it arrived in without a parser or intermediate objects.
+ */
+public final class DecisionBinaryCodec {
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.inbank.decision";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    public static final int MAXIMUM_REQUEST_LENGTH = 2 + 255 + Long.BYTES + Integer.BYTES + 2;
+
+    private static final byte VERSION = 1;
+    private static final byte COUNTRY_VERSION = 2;
+    private static final Country[] COUNTRIES = Country.values();
+    private static final int NONE = -1;
+    private static final int NO_ERROR_MESSAGE = 0xFFFF;
+
+    private DecisionBinaryCodec() {
+    }
+
+    /**
+     * Decodes a decision request from the remaining bytes of the buffer. The personal code is copied once, directly
+     * into its String.
+     *
+     * @param buffer Buffer positioned at the start of the request
+     * @return The decoded request, a missing loan amount decodes as -1
+     * @throws IllegalArgumentException If the bytes are not a complete request of a known version
+     */
+    public static DecisionRequest decodeRequest(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != VERSION && version != COUNTRY_VERSION) {
+                throw new IllegalArgumentException("Unsupported decision request version");
+            }
+            int codeLength = Byte.toUnsignedInt(buffer.get());
+            String personalCode;
+            if (buffer.hasArray()) {
+                personalCode = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), codeLength,
+                        StandardCharsets.ISO_8859_1);
+                buffer.position(buffer.position() + codeLength);
+            } else {
+                byte[] code = new byte[codeLength];
+                buffer.get(code);
+                personalCode = new String(code, StandardCharsets.ISO_8859_1);
+            }
+            long loanAmount = buffer.getLong();
+            int loanPeriod = buffer.getInt();
+            Country country = version == VERSION ? Country.EE : decodeCountry(buffer.get(), buffer.get());
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after the decision request");
+            }
+            return new DecisionRequest(personalCode, loanAmount, loanPeriod, country);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated decision request", e);
+        }
+    }
+
+    /**
+     * Finds the country by its letters without creating a String to look it up with.
+     */
+    private static Country decodeCountry(byte first, byte second) {
+        for (Country country : COUNTRIES) {
+            if (country.name().charAt(0) == first && country.name().charAt(1) == second) {
+                return country;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported country of the personal code");
+    }
+
+    /**
+     * @return The number of bytes of the encoded request
+     */
+    public static int encodedLength(DecisionRequest request) {
+        return 2 + request.getPersonalCode().length() + Long.BYTES + Integer.BYTES + 2;
+    }
+
+    /**
+     * Encodes the request into the buffer, which must have {@link #encodedLength(DecisionRequest)} bytes remaining.
+     *
+     * @param request Request to encode, a missing loan amount is encoded as -1
+     * @param buffer Buffer to write the request to
+     * @throws IllegalArgumentException If the personal code is not ASCII or longer than 255 characters
+     */
+    public static void encodeRequest(DecisionRequest request, ByteBuffer buffer) {
+        String personalCode = request.getPersonalCode();
+        if (personalCode.length() > 255) {
+            throw new IllegalArgumentException("Personal code is longer than 255 characters");
+        }
+        buffer.put(COUNTRY_VERSION);
+        buffer.put((byte) personalCode.length());
+        for (int i = 0; i < personalCode.length(); i++) {
+            char c = personalCode.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Personal code is not ASCII");
+            }
+            buffer.put((byte) c);
+        }
+        buffer.putLong(request.getLoanAmount() == null ? NONE : request.getLoanAmount());
+        buffer.putInt(request.getLoanPeriod());
+        buffer.put((byte) request.getCountry().name().charAt(0));
+        buffer.put((byte) request.getCountry().name().charAt(1));
+    }
+
+    /**
+     * @return The encoded request
+     */
+    public static byte[] encodeRequest(DecisionRequest request) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedLength(request));
+        encodeRequest(request, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * @return The encoded response
+     */
+    public static byte[] encodeResponse(DecisionResponse response) {
+        byte[] errorMessage = response.getErrorMessage() == null
+                ? null : response.getErrorMessage().getBytes(StandardCharsets.UTF_8);
+        int errorLength = errorMessage == null ? 0 : Math.min(errorMessage.length, NO_ERROR_MESSAGE - 1);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 * Integer.BYTES + Short.BYTES + errorLength);
+
+        buffer.put(VERSION);
+        buffer.putInt(response.getLoanAmount() == null ? NONE : response.getLoanAmount());
+        buffer.putInt(response.getLoanPeriod() == null ? NONE : response.getLoanPeriod());
+        buffer.putShort((short) (errorMessage == null ? NO_ERROR_MESSAGE : errorLength));
+        if (errorMessage != null) {
+            buffer.put(errorMessage, 0, errorLength);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a decision response from the remaining bytes of the buffer.
+     *
+     * @param buffer Buffer positioned at the start of the response
+     * @return The decoded response
+     * @throws IllegalArgumentException If the bytes are not a complete response of a known version
+     */
+    public static DecisionResponse decodeResponse(ByteBuffer buffer) {
+        try {
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported decision response version");
+            }
+            int loanAmount = buffer.getInt();
+            int loanPeriod = buffer.getInt();
+            int errorLength = Short.toUnsignedInt(buffer.getShort());
+            String errorMessage = null;
+            if (errorLength != NO_ERROR_MESSAGE) {
+                byte[] bytes = new byte[errorLength];
+                buffer.get(bytes);
+                errorMessage = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new DecisionResponse(loanAmount == NONE ? null : loanAmount,
+                    loanPeriod == NONE ? null : loanPeriod, errorMessage);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated decision response", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Decodes DecisionRequests in the compact binary format of the {@link DecisionBinaryCodec} for the WebFlux
+ * controller. The request is decoded straight from the joined data buffer.
+ */
+public class DecisionBinaryDecoder extends AbstractDataBufferDecoder<DecisionRequest> {
+
+    public DecisionBinaryDecoder() {
+        super(DecisionBinaryCodec.MEDIA_TYPE);
+        setMaxInMemorySize(DecisionBinaryCodec.MAXIMUM_REQUEST_LENGTH);
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return elementType.toClass() == DecisionRequest.class && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public DecisionRequest decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType,
+                                  Map<String, Object> hints) {
+        try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+            ByteBuffer byteBuffer = byteBuffers.next();
+            if (byteBuffers.hasNext()) {
+                // A composite buffer, copy it into one
+                byteBuffer = ByteBuffer.allocate(buffer.readableByteCount());
+                buffer.toByteBuffer(byteBuffer);
+            }
+            return DecisionBinaryCodec.decodeRequest(byteBuffer);
+        } catch (IllegalArgumentException e) {
+            throw new DecodingException(e.getMessage(), e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads DecisionRequests and writes DecisionResponses in the compact binary format of the
+ * {@link DecisionBinaryCodec} for the Spring MVC controller.
+ */
+public class DecisionBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public DecisionBinaryHttpMessageConverter() {
+        super(DecisionBinaryCodec.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == DecisionRequest.class || clazz == DecisionResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == DecisionRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == DecisionResponse.class && canWrite(mediaType);
+    }
+
+    /**
+     * Reads at most one byte more than the longest request, so an oversized body is rejected without buffering it.
+     */
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        InputStream body = inputMessage.getBody();
+        byte[] bytes = body.readNBytes(DecisionBinaryCodec.MAXIMUM_REQUEST_LENGTH + 1);
+        try {
+            return DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(bytes));
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object response, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes = DecisionBinaryCodec.encodeResponse((DecisionResponse) response);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
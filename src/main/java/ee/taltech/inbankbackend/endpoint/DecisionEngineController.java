@@ -1,32 +1,36 @@
 package ee.taltech.inbankbackend.endpoint;
 
-import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
-import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
-import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
-import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
-import ee.taltech.inbankbackend.service.Decision;
-import ee.taltech.inbankbackend.service.DecisionEngine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/loan")
 @CrossOrigin
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DecisionEngineController {
 
-    private final DecisionEngine decisionEngine;
-    private final DecisionResponse response;
+    private final DecisionRequestHandler decisionRequestHandler;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    DecisionEngineController(DecisionEngine decisionEngine, DecisionResponse response) {
-        this.decisionEngine = decisionEngine;
-        this.response = response;
+    DecisionEngineController(DecisionRequestHandler decisionRequestHandler, ObjectMapper objectMapper) {
+        this.decisionRequestHandler = decisionRequestHandler;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -37,39 +41,101 @@ public class DecisionEngineController {
      * - If the personal ID code is invalid, the endpoint returns a bad request response with an error message.<br>
      * - If an unexpected error occurs, the endpoint returns an internal server error response with an error message.<br>
      * - If no valid loans can be found, the endpoint returns a not found response with an error message.<br>
-     * - If a valid loan is found, a DecisionResponse is returned containing the approved loan amount and period.
+     * - If a valid loan is found, a DecisionResponse is returned containing the approved loan amount and period.<br><br>
+     * Requests and responses are JSON, CBOR (application/cbor) or the compact format of the
+     * {@link DecisionBinaryCodec} (application/vnd.inbank.decision), chosen by the Content-Type and Accept headers.
      *
-     * @param request The request body containing the customer's personal ID code, requested loan amount, and loan period
-     * @return A ResponseEntity with a DecisionResponse body containing the approved loan amount and period, and an error message (if any)
+     * @param request The request body containing the customer's personal ID code, requested loan amount, and loan
+     * period
+     * @return A ResponseEntity with a DecisionResponse body containing the approved loan amount and period, and an
+     * error message (if any)
      */
-    @PostMapping("/decision")
+    @PostMapping(value = "/decision", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            DecisionBinaryCodec.MEDIA_TYPE_VALUE})
     public ResponseEntity<DecisionResponse> requestDecision(@RequestBody DecisionRequest request) {
-        try {
-            Decision decision = decisionEngine.
-                    calculateApprovedLoan(request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod());
-            response.setLoanAmount(decision.getLoanAmount());
-            response.setLoanPeriod(decision.getLoanPeriod());
-            response.setErrorMessage(decision.getErrorMessage());
+        return decisionRequestHandler.decide(request);
+    }
 
-            return ResponseEntity.ok(response);
-        } catch (InvalidPersonalCodeException | InvalidLoanAmountException | InvalidLoanPeriodException e) {
-            response.setLoanAmount(null);
-            response.setLoanPeriod(null);
-            response.setErrorMessage(e.getMessage());
+    /**
+     * A REST endpoint that returns every feasible loan of a customer at once.
+     * The endpoint accepts POST requests with a request body containing the customer's personal ID code and returns
+     * the maximum approved loan amount of every loan period from 12 to 48 months, with the same error responses as
+     * {@link #requestDecision(DecisionRequest)}.
+     *
+     * @param request The request body containing the customer's personal ID code
+     * @return A ResponseEntity with an OfferMatrixResponse body containing the maximum loan amounts, and an error
+     * message (if any)
+     */
+    @PostMapping(value = "/offers", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<OfferMatrixResponse> requestOfferMatrix(@RequestBody OfferMatrixRequest request) {
+        return decisionRequestHandler.offerMatrix(request);
+    }
+
+    /**
+     * A REST endpoint that handles batches of loan decision requests.
+     * The endpoint accepts POST requests with a JSON array of decision requests and streams back a JSON array of
+     * decision responses in the same order, each one written as soon as it is decided.<br><br>
+     * - Errors of a single request are reported in the errorMessage of its response, the rest of the batch goes on.<br>
+     * - If the batch itself is malformed, the responses decided so far are followed by a last error response.
+     *
+     * @param body The request body containing a JSON array of decision requests
+     * @return A ResponseEntity streaming a JSON array of DecisionResponses
+     */
+    @PostMapping(value = "/decisions", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> requestDecisions(InputStream body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamDecisions(body, false));
+    }
 
-            return ResponseEntity.badRequest().body(response);
-        } catch (NoValidLoanException e) {
-            response.setLoanAmount(null);
-            response.setLoanPeriod(null);
-            response.setErrorMessage(e.getMessage());
+    /**
+     * Same as {@link #requestDecisions(InputStream)}, but both the requests and the responses are newline delimited
+     * JSON objects instead of JSON arrays.
+     *
+     * @param body The request body containing newline delimited decision requests
+     * @return A ResponseEntity streaming newline delimited DecisionResponses
+     */
+    @PostMapping(value = "/decisions", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> requestNdjsonDecisions(InputStream body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamDecisions(body, true));
+    }
 
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        } catch (Exception e) {
-            response.setLoanAmount(null);
-            response.setLoanPeriod(null);
-            response.setErrorMessage("An unexpected error occurred");
+    /**
+     * Reads the decision requests one at a time and writes each response before reading the next request, so the
+     * batch is never held in memory as a whole.
+     */
+    private StreamingResponseBody streamDecisions(InputStream body, boolean ndjson) {
+        return outputStream -> {
+            try (MappingIterator<DecisionRequest> requests = objectMapper.readerFor(DecisionRequest.class)
+                    .readValues(body);
+                 JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                try {
+                    while (requests.hasNextValue()) {
+                        DecisionRequest request = requests.nextValue();
+                        writeDecision(generator, decisionRequestHandler.decide(request).getBody(), ndjson);
+                    }
+                } catch (JsonProcessingException e) {
+                    writeDecision(generator, DecisionResponse.MALFORMED_REQUEST, ndjson);
+                }
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+    }
 
-            return ResponseEntity.internalServerError().body(response);
+    private void writeDecision(JsonGenerator generator, DecisionResponse decisionResponse, boolean ndjson)
+            throws IOException {
+        generator.writeObject(decisionResponse);
+        if (ndjson) {
+            generator.writeRaw('\n');
         }
+        generator.flush();
     }
 }
@@ -1,15 +1,35 @@
 package ee.taltech.inbankbackend.endpoint;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import ee.taltech.inbankbackend.service.Country;
 import lombok.Getter;
 
 /**
  * Holds the request data of the REST endpoint
  */
 @Getter
-@AllArgsConstructor
 public class DecisionRequest {
-    private String personalCode;
-    private Long loanAmount;
-    private int loanPeriod;
+    private final String personalCode;
+    private final Long loanAmount;
+    private final int loanPeriod;
+    /**
+     * Country that issued the personal ID code, Estonia if the request does not name one
+     */
+    private final Country country;
+
+    public DecisionRequest(String personalCode, Long loanAmount, int loanPeriod) {
+        this(personalCode, loanAmount, loanPeriod, Country.EE);
+    }
+
+    @JsonCreator
+    public DecisionRequest(@JsonProperty("personalCode") String personalCode,
+                           @JsonProperty("loanAmount") Long loanAmount,
+                           @JsonProperty("loanPeriod") int loanPeriod,
+                           @JsonProperty("country") Country country) {
+        this.personalCode = personalCode;
+        this.loanAmount = loanAmount;
+        this.loanPeriod = loanPeriod;
+        this.country = country == null ? Country.EE : country;
+    }
 }
@@ -0,0 +1,82 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Decision;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import ee.taltech.inbankbackend.service.OfferMatrix;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides a single loan request and maps the outcome to a response. Shared by the Spring MVC and the WebFlux
+ * controllers, so both answer with the same statuses and error messages.
+ */
+@Component
+public class DecisionRequestHandler {
+
+    private final DecisionEngine decisionEngine;
+
+    @Autowired
+    public DecisionRequestHandler(DecisionEngine decisionEngine) {
+        this.decisionEngine = decisionEngine;
+    }
+
+    /**
+     * - If the loan amount or period is invalid, a bad request response with an error message is returned.<br>
+     * - If the personal ID code is invalid, a bad request response with an error message is returned.<br>
+     * - If an unexpected error occurs, an internal server error response with an error message is returned.<br>
+     * - If no valid loans can be found, a not found response with an error message is returned.<br>
+     * - If a valid loan is found, a DecisionResponse is returned containing the approved loan amount and period.
+     *
+     * @param request The customer's personal ID code and its country, requested loan amount, and loan period
+     * @return A ResponseEntity with a DecisionResponse body containing the approved loan amount and period, and an
+     * error message (if any)
+     */
+    public ResponseEntity<DecisionResponse> decide(DecisionRequest request) {
+        try {
+            Decision decision = decisionEngine.calculateApprovedLoan(request.getCountry(), request.getPersonalCode(),
+                    request.getLoanAmount(), request.getLoanPeriod());
+
+            return ResponseEntity.ok(new DecisionResponse(
+                    decision.getLoanAmount(), decision.getLoanPeriod(), decision.getErrorMessage()));
+        } catch (InvalidPersonalCodeException | InvalidLoanAmountException | InvalidLoanPeriodException e) {
+            return ResponseEntity.badRequest().body(DecisionResponse.error(e.getMessage()));
+        } catch (NoValidLoanException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(DecisionResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(DecisionResponse.UNEXPECTED_ERROR);
+        }
+    }
+
+    /**
+     * - If the personal ID code is invalid or the customer is in debt, a bad request response with an error message is
+     * returned.<br>
+     * - If the customer's age is not eligible, a not found response with an error message is returned.<br>
+     * - If an unexpected error occurs, an internal server error response with an error message is returned.<br>
+     * - Otherwise an OfferMatrixResponse is returned containing the maximum approved loan amount of every loan period.
+     *
+     * @param request The customer's personal ID code and its country
+     * @return A ResponseEntity with an OfferMatrixResponse body containing the maximum loan amounts, and an error
+     * message (if any)
+     */
+    public ResponseEntity<OfferMatrixResponse> offerMatrix(OfferMatrixRequest request) {
+        try {
+            OfferMatrix offerMatrix = decisionEngine.calculateOfferMatrix(request.getCountry(),
+                    request.getPersonalCode());
+
+            return ResponseEntity.ok(new OfferMatrixResponse(
+                    offerMatrix.getFirstLoanPeriod(), offerMatrix.getMaxLoanAmounts(), null));
+        } catch (InvalidPersonalCodeException | InvalidLoanAmountException e) {
+            return ResponseEntity.badRequest().body(OfferMatrixResponse.error(e.getMessage()));
+        } catch (NoValidLoanException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(OfferMatrixResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(OfferMatrixResponse.UNEXPECTED_ERROR);
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package ee.taltech.inbankbackend.endpoint;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
-import lombok.Setter;
-import org.springframework.stereotype.Component;
 
 /**
  * Holds the response data of the REST endpoint.
+ * Responses are immutable, so every request gets its own instance and fixed responses can be shared.
  */
 @Getter
-@Setter
-@Component
 public class DecisionResponse {
-    private Integer loanAmount;
-    private Integer loanPeriod;
-    private String errorMessage;
+    public static final DecisionResponse UNEXPECTED_ERROR = error("An unexpected error occurred");
+    public static final DecisionResponse MALFORMED_REQUEST = error("Malformed decision request");
+
+    private final Integer loanAmount;
+    private final Integer loanPeriod;
+    private final String errorMessage;
+
+    @JsonCreator
+    public DecisionResponse(@JsonProperty("loanAmount") Integer loanAmount,
+                            @JsonProperty("loanPeriod") Integer loanPeriod,
+                            @JsonProperty("errorMessage") String errorMessage) {
+        this.loanAmount = loanAmount;
+        this.loanPeriod = loanPeriod;
+        this.errorMessage = errorMessage;
+    }
+
+    public static DecisionResponse error(String errorMessage) {
+        return new DecisionResponse(null, null, errorMessage);
+    }
 }
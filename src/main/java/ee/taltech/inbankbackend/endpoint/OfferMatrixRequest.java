@@ -0,0 +1,29 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import ee.taltech.inbankbackend.service.Country;
+import lombok.Getter;
+
+/**
+ * Holds the request data of the offer matrix endpoint
+ */
+@Getter
+public class OfferMatrixRequest {
+    private final String personalCode;
+    /**
+     * Country that issued the personal ID code, Estonia if the request does not name one
+     */
+    private final Country country;
+
+    public OfferMatrixRequest(String personalCode) {
+        this(personalCode, Country.EE);
+    }
+
+    @JsonCreator
+    public OfferMatrixRequest(@JsonProperty("personalCode") String personalCode,
+                              @JsonProperty("country") Country country) {
+        this.personalCode = personalCode;
+        this.country = country == null ? Country.EE : country;
+    }
+}
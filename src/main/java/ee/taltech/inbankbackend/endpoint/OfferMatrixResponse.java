@@ -0,0 +1,33 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+/**
+ * Holds the response data of the offer matrix endpoint.
+ * maxLoanAmounts[i] is the maximum loan amount approved with a loan period of firstLoanPeriod + i months, 0 if no
+ * amount is approved with that period.
+ */
+@Getter
+public class OfferMatrixResponse {
+    public static final OfferMatrixResponse UNEXPECTED_ERROR =
+            error(DecisionResponse.UNEXPECTED_ERROR.getErrorMessage());
+
+    private final Integer firstLoanPeriod;
+    private final int[] maxLoanAmounts;
+    private final String errorMessage;
+
+    @JsonCreator
+    public OfferMatrixResponse(@JsonProperty("firstLoanPeriod") Integer firstLoanPeriod,
+                               @JsonProperty("maxLoanAmounts") int[] maxLoanAmounts,
+                               @JsonProperty("errorMessage") String errorMessage) {
+        this.firstLoanPeriod = firstLoanPeriod;
+        this.maxLoanAmounts = maxLoanAmounts;
+        this.errorMessage = errorMessage;
+    }
+
+    public static OfferMatrixResponse error(String errorMessage) {
+        return new OfferMatrixResponse(null, null, errorMessage);
+    }
+}
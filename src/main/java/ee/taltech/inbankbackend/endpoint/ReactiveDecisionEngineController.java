@@ -0,0 +1,102 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The non-blocking WebFlux variant of the {@link DecisionEngineController} with the same endpoints and responses.
+ * Active instead of the Spring MVC controller when the application runs with spring.main.web-application-type=reactive.
+ * The decision engine may block, waiting for the credit registry, an identical request or a full audit journal, so
+ * requests are decided on the bounded elastic scheduler and the event loops only decode and encode.
+ */
+@RestController
+@RequestMapping("/loan")
+@CrossOrigin
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDecisionEngineController {
+
+    /**
+     * Number of decoded batch requests waiting for the decision engine, kept low so requests are still decoded only
+     * as fast as they are decided.
+     */
+    private static final int BATCH_PREFETCH = 16;
+
+    private final DecisionRequestHandler decisionRequestHandler;
+    private final Scheduler decisionScheduler = Schedulers.boundedElastic();
+
+    @Autowired
+    ReactiveDecisionEngineController(DecisionRequestHandler decisionRequestHandler) {
+        this.decisionRequestHandler = decisionRequestHandler;
+    }
+
+    /**
+     * Decides a single loan request, see {@link DecisionEngineController#requestDecision(DecisionRequest)}.
+     *
+     * @param request The request body containing the customer's personal ID code, requested loan amount, and loan
+     * period
+     * @return A ResponseEntity with a DecisionResponse body containing the approved loan amount and period, and an
+     * error message (if any)
+     */
+    @PostMapping(value = "/decision", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            DecisionBinaryCodec.MEDIA_TYPE_VALUE})
+    public Mono<ResponseEntity<DecisionResponse>> requestDecision(@RequestBody Mono<DecisionRequest> request) {
+        return request.publishOn(decisionScheduler).map(decisionRequestHandler::decide);
+    }
+
+    /**
+     * Finds every feasible loan of a customer, see {@link DecisionEngineController#requestOfferMatrix}.
+     *
+     * @param request The request body containing the customer's personal ID code
+     * @return A ResponseEntity with an OfferMatrixResponse body containing the maximum loan amounts, and an error
+     * message (if any)
+     */
+    @PostMapping(value = "/offers", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public Mono<ResponseEntity<OfferMatrixResponse>> requestOfferMatrix(@RequestBody Mono<OfferMatrixRequest> request) {
+        return request.publishOn(decisionScheduler).map(decisionRequestHandler::offerMatrix);
+    }
+
+    /**
+     * Decides a JSON array of loan requests, see {@link DecisionEngineController#requestDecisions}.
+     * Requests are decoded only as fast as the client reads the responses.
+     *
+     * @param requests The request body containing a JSON array of decision requests
+     * @return A JSON array of DecisionResponses
+     */
+    @PostMapping(value = "/decisions", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DecisionResponse> requestDecisions(@RequestBody Flux<DecisionRequest> requests) {
+        return decideAll(requests);
+    }
+
+    /**
+     * Decides newline delimited loan requests, see {@link DecisionEngineController#requestNdjsonDecisions}.
+     * Requests are decoded only as fast as the client reads the responses.
+     *
+     * @param requests The request body containing newline delimited decision requests
+     * @return Newline delimited DecisionResponses
+     */
+    @PostMapping(value = "/decisions", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DecisionResponse> requestNdjsonDecisions(@RequestBody Flux<DecisionRequest> requests) {
+        return decideAll(requests);
+    }
+
+    private Flux<DecisionResponse> decideAll(Flux<DecisionRequest> requests) {
+        return requests
+                .publishOn(decisionScheduler, BATCH_PREFETCH)
+                .map(request -> decisionRequestHandler.decide(request).getBody())
+                .onErrorResume(ServerWebInputException.class, e -> Mono.just(DecisionResponse.MALFORMED_REQUEST));
+    }
+}
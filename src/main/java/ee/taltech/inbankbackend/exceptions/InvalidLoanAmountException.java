@@ -2,27 +2,17 @@ package ee.taltech.inbankbackend.exceptions;
 
 /**
  * Thrown when requested loan amount is invalid.
+ * Carries no stack trace, so the shared instances can be thrown on every rejected request.
  */
 public class InvalidLoanAmountException extends Throwable {
-    private final String message;
-    private final Throwable cause;
+    public static final InvalidLoanAmountException NO_VALID_LOAN = new InvalidLoanAmountException("No valid loan found!");
+    public static final InvalidLoanAmountException IN_DEBT = new InvalidLoanAmountException("No valid loan found! You are in debt.");
 
     public InvalidLoanAmountException(String message) {
         this(message, null);
     }
 
     public InvalidLoanAmountException(String message, Throwable cause) {
-        this.message = message;
-        this.cause = cause;
-    }
-
-    @Override
-    public Throwable getCause() {
-        return cause;
-    }
-
-    @Override
-    public String getMessage() {
-        return message;
+        super(message, cause, false, false);
     }
 }
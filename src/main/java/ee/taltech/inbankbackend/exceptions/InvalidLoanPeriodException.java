@@ -2,27 +2,16 @@ package ee.taltech.inbankbackend.exceptions;
 
 /**
  * Thrown when requested loan period is invalid.
+ * Carries no stack trace, so the shared instance can be thrown on every rejected request.
  */
 public class InvalidLoanPeriodException extends Throwable {
-    private final String message;
-    private final Throwable cause;
+    public static final InvalidLoanPeriodException INVALID_LOAN_AMOUNT_OR_PERIOD = new InvalidLoanPeriodException("Invalid loan amount or period!");
 
     public InvalidLoanPeriodException(String message) {
         this(message, null);
     }
 
     public InvalidLoanPeriodException(String message, Throwable cause) {
-        this.message = message;
-        this.cause = cause;
-    }
-
-    @Override
-    public Throwable getCause() {
-        return cause;
-    }
-
-    @Override
-    public String getMessage() {
-        return message;
+        super(message, cause, false, false);
     }
 }
@@ -2,27 +2,16 @@ package ee.taltech.inbankbackend.exceptions;
 
 /**
  * Thrown when provided personal ID code is invalid.
+ * Carries no stack trace, so the shared instance can be thrown on every rejected code.
  */
 public class InvalidPersonalCodeException extends Throwable {
-    private final String message;
-    private final Throwable cause;
+    public static final InvalidPersonalCodeException INVALID_PERSONAL_CODE = new InvalidPersonalCodeException("Invalid personal ID code!");
 
     public InvalidPersonalCodeException(String message) {
         this(message, null);
     }
 
     public InvalidPersonalCodeException(String message, Throwable cause) {
-        this.message = message;
-        this.cause = cause;
-    }
-
-    @Override
-    public Throwable getCause() {
-        return cause;
-    }
-
-    @Override
-    public String getMessage() {
-        return message;
+        super(message, cause, false, false);
     }
 }
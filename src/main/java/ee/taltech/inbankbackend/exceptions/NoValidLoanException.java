@@ -2,27 +2,18 @@ package ee.taltech.inbankbackend.exceptions;
 
 /**
  * Thrown when no valid loan is found.
+ * Rejections are a regular outcome rather than a bug, so no stack trace is captured and the shared instances
+ * below can be thrown without allocating.
  */
 public class NoValidLoanException extends Throwable {
-    private final String message;
-    private final Throwable cause;
+    public static final NoValidLoanException UNDERAGE = new NoValidLoanException("AGE_RESRTRICTION:UNDERAGE");
+    public static final NoValidLoanException OVERAGE = new NoValidLoanException("AGE_RESRTRICTION:OVERAGE");
 
     public NoValidLoanException(String message) {
         this(message, null);
     }
 
     public NoValidLoanException(String message, Throwable cause) {
-        this.message = message;
-        this.cause = cause;
-    }
-
-    @Override
-    public Throwable getCause() {
-        return cause;
-    }
-
-    @Override
-    public String getMessage() {
-        return message;
+        super(message, cause, false, false);
     }
 }
@@ -2,6 +2,26 @@ package ee.taltech.inbankbackend.service;
 
 import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
 
+import java.time.LocalDate;
+
 public interface AgeValidator {
-    void verifyAgeEligibility(String personalCode) throws NoValidLoanException;
+    /**
+     * @param personalCode Valid personal ID code packed by {@link PersonalCodeParser}
+     * @throws NoValidLoanException If the customer's age is not eligible for a loan
+     */
+    void verifyAgeEligibility(long personalCode) throws NoValidLoanException;
+
+    default void verifyAgeEligibility(String personalCode) throws NoValidLoanException {
+        verifyAgeEligibility(PersonalCodeParser.parse(personalCode));
+    }
+
+    /**
+     * Tells when the result of {@link #verifyAgeEligibility(long)} changes next for the customer, so cached results
+     * can be dropped in time.
+     * @param personalCode Valid personal ID code packed by {@link PersonalCodeParser}
+     * @return The first day with a different result, or null if it never changes or is not known
+     */
+    default LocalDate getEligibilityChangeDate(long personalCode) {
+        return null;
+    }
 }
@@ -0,0 +1,94 @@
+package ee.taltech.inbankbackend.service;
+
+/**
+ * Reads and writes the approval mask of a loan amount x loan period grid, one bit per combination.
+ * Every loan period gets its own row of {@link #rowLength(int)} longs; bit i % 64 of word i / 64 in a row tells
+ * whether the i-th loan amount is approved for the row's loan period.
+ */
+public final class ApprovalMask {
+
+    private ApprovalMask() {
+    }
+
+    /**
+     * @param amountCount Number of loan amounts in the grid
+     * @return Number of longs in the row of one loan period
+     */
+    public static int rowLength(int amountCount) {
+        return (amountCount + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * @param amountCount Number of loan amounts in the grid
+     * @param periodCount Number of loan periods in the grid
+     * @return An empty mask for the grid
+     */
+    public static long[] allocate(int amountCount, int periodCount) {
+        return new long[rowLength(amountCount) * periodCount];
+    }
+
+    /**
+     * Sets the row of a loan period from its credit scores.
+     * @param mask Mask of the grid
+     * @param periodIndex Index of the loan period
+     * @param creditScores Credit scores of all loan amounts for the loan period
+     * @param minimumCreditScore Lowest approved credit score
+     */
+    public static void setRow(long[] mask, int periodIndex, double[] creditScores, double minimumCreditScore) {
+        int rowLength = rowLength(creditScores.length);
+        int rowStart = periodIndex * rowLength;
+
+        for (int word = 0; word < rowLength; word++) {
+            int first = word * Long.SIZE;
+            int last = Math.min(first + Long.SIZE, creditScores.length);
+            long bits = 0;
+            for (int i = first; i < last; i++) {
+                bits |= (creditScores[i] >= minimumCreditScore ? 1L : 0L) << i;
+            }
+            mask[rowStart + word] = bits;
+        }
+    }
+
+    public static boolean isApproved(long[] mask, int amountCount, int periodIndex, int amountIndex) {
+        return (mask[periodIndex * rowLength(amountCount) + (amountIndex >>> 6)] & 1L << amountIndex) != 0;
+    }
+
+    /**
+     * @param mask Mask of the grid
+     * @param amountCount Number of loan amounts in the grid
+     * @param periodIndex Index of the loan period
+     * @return Index of the first loan amount approved for the loan period, or -1 if none is
+     */
+    public static int firstApprovedAmount(long[] mask, int amountCount, int periodIndex) {
+        int rowLength = rowLength(amountCount);
+        int rowStart = periodIndex * rowLength;
+
+        for (int word = 0; word < rowLength; word++) {
+            if (mask[rowStart + word] != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(mask[rowStart + word]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param mask Mask of the grid
+     * @param amountCount Number of loan amounts in the grid
+     * @param periodCount Number of loan periods in the grid
+     * @return Index of the first loan amount approved for any loan period, or -1 if none is
+     */
+    public static int firstApprovedAmountOfAnyPeriod(long[] mask, int amountCount, int periodCount) {
+        int rowLength = rowLength(amountCount);
+
+        for (int word = 0; word < rowLength; word++) {
+            long bits = 0;
+            for (int periodIndex = 0; periodIndex < periodCount; periodIndex++) {
+                bits |= mask[periodIndex * rowLength + word];
+            }
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,24 @@
+package ee.taltech.inbankbackend.service;
+
+/**
+ * Countries whose personal ID codes the decision engine accepts, by ISO 3166-1 alpha-2 code.
+ * Each country's codes are parsed and checksummed by its own {@link PersonalCodeFormat}.
+ */
+public enum Country {
+    /**
+     * Estonia, GYYMMDDSSSC
+     */
+    EE,
+    /**
+     * Latvia, DDMMYY-CNNNX
+     */
+    LV,
+    /**
+     * Lithuania, GYYMMDDSSSC like Estonia
+     */
+    LT,
+    /**
+     * Finland, DDMMYYCZZZQ
+     */
+    FI
+}
@@ -0,0 +1,16 @@
+package ee.taltech.inbankbackend.service;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Finds the credit modifier of a customer, either locally or from an external credit registry.
+ */
+public interface CreditModifierProvider {
+    /**
+     * @param country Country that issued the personal ID code
+     * @param personalCode Valid personal ID code of the customer
+     * @return The credit modifier of the customer, completed exceptionally if it could not be found. The stage may be
+     * shared with other callers and cannot be completed by them.
+     */
+    CompletionStage<Integer> getCreditModifier(Country country, String personalCode);
+}
@@ -1,5 +1,56 @@
 package ee.taltech.inbankbackend.service;
 
 public interface CreditScoreCalculator {
-    double calculateCreditScore(int creditModifier, Long loanAmount, int loanPeriod);
+    double calculateCreditScore(int creditModifier, long loanAmount, int loanPeriod);
+
+    /**
+     * Boxed variant kept for existing callers, use {@link #calculateCreditScore(int, long, int)} instead.
+     */
+    default double calculateCreditScore(int creditModifier, Long loanAmount, int loanPeriod) {
+        return calculateCreditScore(creditModifier, loanAmount.longValue(), loanPeriod);
+    }
+
+    /**
+     * Scores several loan amounts for the same customer and loan period at once. Implementations should write the
+     * same scores as {@link #calculateCreditScore(int, long, int)} would return for each amount.
+     * @param creditModifier Credit modifier of the customer
+     * @param loanAmounts Loan amounts to score
+     * @param loanPeriod Loan period to score the amounts with
+     * @param creditScores Receives the credit score of loanAmounts[i] at index i
+     */
+    default void calculateCreditScores(int creditModifier, int[] loanAmounts, int loanPeriod, double[] creditScores) {
+        for (int i = 0; i < loanAmounts.length; i++) {
+            creditScores[i] = calculateCreditScore(creditModifier, loanAmounts[i], loanPeriod);
+        }
+    }
+
+    /**
+     * Tells which combinations of a loan amount x loan period grid reach the minimum credit score, scoring one loan
+     * period of the grid at a time with {@link #calculateCreditScores(int, int[], int, double[])}.
+     * @param creditModifier Credit modifier of the customer
+     * @param loanAmounts Loan amounts of the grid
+     * @param loanPeriods Loan periods of the grid
+     * @param minimumCreditScore Lowest approved credit score
+     * @return The approval mask of the grid, read with {@link ApprovalMask}
+     */
+    default long[] calculateApprovalMask(int creditModifier, int[] loanAmounts, int[] loanPeriods,
+                                         double minimumCreditScore) {
+        long[] mask = ApprovalMask.allocate(loanAmounts.length, loanPeriods.length);
+        double[] creditScores = new double[loanAmounts.length];
+
+        for (int periodIndex = 0; periodIndex < loanPeriods.length; periodIndex++) {
+            calculateCreditScores(creditModifier, loanAmounts, loanPeriods[periodIndex], creditScores);
+            ApprovalMask.setRow(mask, periodIndex, creditScores, minimumCreditScore);
+        }
+        return mask;
+    }
+
+    /**
+     * Tells whether the credit score never increases with the loan amount and never decreases with the loan period.
+     * Monotonic calculators let the LoanAmountCalculator binary search the loan grid instead of scanning it.
+     * @return True if the score is monotonic in both the loan amount and the loan period
+     */
+    default boolean isMonotonic() {
+        return false;
+    }
 }
@@ -0,0 +1,38 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Everything the DecisionEngine knows about a customer from their personal ID code alone: whether the code is valid,
+ * the customer's age band and their credit modifier, according to the decision policy version it was built with.
+ */
+@Getter
+public class CustomerProfile {
+    // Whether a personal ID code is valid does not depend on the decision policy
+    public static final CustomerProfile INVALID = new CustomerProfile(Long.MAX_VALUE, false, null, 0, null);
+
+    private final long policyVersion;
+    private final boolean validPersonalCode;
+    private final NoValidLoanException ageRejection;
+    private final int creditModifier;
+    private final LocalDate ageBoundary;
+
+    /**
+     * @param policyVersion Version of the decision policy the profile was built with
+     * @param validPersonalCode Whether the personal ID code is valid
+     * @param ageRejection The rejection for an underage or overage customer, null if the age is eligible
+     * @param creditModifier Credit modifier of the customer
+     * @param ageBoundary The first day the customer belongs to another age band, null if that never happens
+     */
+    public CustomerProfile(long policyVersion, boolean validPersonalCode, NoValidLoanException ageRejection,
+                           int creditModifier, LocalDate ageBoundary) {
+        this.policyVersion = policyVersion;
+        this.validPersonalCode = validPersonalCode;
+        this.ageRejection = ageRejection;
+        this.creditModifier = creditModifier;
+        this.ageBoundary = ageBoundary;
+    }
+}
@@ -0,0 +1,112 @@
+package ee.taltech.inbankbackend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of customer profiles keyed by country and personal ID code, so customers repeating their request with a
+ * different loan amount or period skip the validators and the credit modifier lookup.
+ * Entries are evicted by size (W-TinyLFU) and expire after the configured TTL, or earlier at the start of the day
+ * the customer moves to another age band, according to the application clock. Profiles built with an older
+ * decision policy are rebuilt when they are next requested. Hits, misses and evictions are published under the cache
+ * name "customer_profiles".
+ * The cache holds the futures of the profiles, so a profile waiting for the credit registry is loaded without holding
+ * a lock of the cache and is shared by concurrent requests of the same customer. Profiles that failed to load are
+ * removed.
+ */
+@Service
+public class CustomerProfileCache {
+    private final AsyncCache<CustomerKey, CustomerProfile> cache;
+
+    @Autowired
+    public CustomerProfileCache(MeterRegistry meterRegistry, Clock clock,
+                                @Value("${decision.profile-cache.maximum-size:100000}") long maximumSize,
+                                @Value("${decision.profile-cache.ttl:10m}") Duration ttl) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new AgeBoundaryExpiry(clock, ttl.toNanos()))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "customer_profiles");
+    }
+
+    /**
+     * @param country Country that issued the personal ID code
+     * @param personalCode Personal ID code of the customer
+     * @param policyVersion Version of the decision policy in effect
+     * @param loader Starts building the profile of the personal ID code if it is not cached or was built with an older
+     * policy, must not block
+     * @return The cached or freshly loaded profile, waiting for it if it is still being loaded
+     * @throws java.util.concurrent.CompletionException If the profile could not be loaded
+     */
+    public CustomerProfile get(Country country, String personalCode, long policyVersion,
+                               Function<String, CompletableFuture<CustomerProfile>> loader) {
+        CustomerKey customerKey = new CustomerKey(country, personalCode);
+        CustomerProfile profile = cache.get(customerKey, (key, executor) -> loader.apply(key.personalCode)).join();
+        if (profile.getPolicyVersion() < policyVersion) {
+            profile = cache.asMap().compute(customerKey, (key, cached) -> isCurrent(cached, policyVersion) ? cached
+                    : loader.apply(key.personalCode)).join();
+        }
+        return profile;
+    }
+
+    private static boolean isCurrent(CompletableFuture<CustomerProfile> profile, long policyVersion) {
+        return profile != null && profile.isDone() && !profile.isCompletedExceptionally()
+                && profile.join().getPolicyVersion() >= policyVersion;
+    }
+
+    /**
+     * Personal ID codes of different countries may be equal, e.g. Estonian and Lithuanian ones.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class CustomerKey {
+        private final Country country;
+        private final String personalCode;
+    }
+
+    private static final class AgeBoundaryExpiry implements Expiry<CustomerKey, CustomerProfile> {
+        private final Clock clock;
+        private final long ttlNanos;
+
+        private AgeBoundaryExpiry(Clock clock, long ttlNanos) {
+            this.clock = clock;
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(CustomerKey customerKey, CustomerProfile profile, long currentTime) {
+            if (profile.getAgeBoundary() == null) {
+                return ttlNanos;
+            }
+            long boundaryMillis = profile.getAgeBoundary().atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+            long untilBoundary = Duration.ofMillis(Math.max(0, boundaryMillis - clock.millis())).toNanos();
+            return Math.min(ttlNanos, untilBoundary);
+        }
+
+        @Override
+        public long expireAfterUpdate(CustomerKey customerKey, CustomerProfile profile, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(customerKey, profile, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(CustomerKey customerKey, CustomerProfile profile, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
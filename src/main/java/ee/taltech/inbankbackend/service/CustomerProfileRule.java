@@ -0,0 +1,139 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rejects customers with an invalid personal ID code or an ineligible age and hands the profile of eligible customers
+ * on to the DecisionEngine. The most expensive rule: the profile is looked up in the CustomerProfileCache and built
+ * with a checksum validation, an age verification and a credit modifier lookup when it is not cached.
+ */
+@Component
+public class CustomerProfileRule implements DecisionRule {
+    private final PersonalCodeValidator personalCodeValidator;
+    private final AgeValidator ageValidator;
+    private final CreditModifierProvider creditModifierProvider;
+    private final CustomerProfileCache customerProfileCache;
+    private final DecisionMetrics decisionMetrics;
+
+    @Autowired
+    public CustomerProfileRule(PersonalCodeValidator personalCodeValidator,
+                               AgeValidator ageValidator,
+                               CreditModifierProvider creditModifierProvider,
+                               CustomerProfileCache customerProfileCache,
+                               DecisionMetrics decisionMetrics) {
+        this.personalCodeValidator = personalCodeValidator;
+        this.ageValidator = ageValidator;
+        this.creditModifierProvider = creditModifierProvider;
+        this.customerProfileCache = customerProfileCache;
+        this.decisionMetrics = decisionMetrics;
+    }
+
+    @Override
+    public String getName() {
+        return "customer_profile";
+    }
+
+    @Override
+    public int getCost() {
+        return 100;
+    }
+
+    @Override
+    public void check(LoanApplication application) throws InvalidPersonalCodeException, NoValidLoanException {
+        application.setCustomerProfile(getEligibleCustomerProfile(application.getPolicy(), application.getCountry(),
+                application.getPersonalCode()));
+    }
+
+    /**
+     * Finds the customer's profile and rejects customers with an invalid personal ID code or an ineligible age.
+     *
+     * @param policy Decision policy in effect
+     * @param country Country that issued the personal ID code
+     * @param personalCode ID code of the customer that made the request.
+     * @return The profile of the eligible customer
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws NoValidLoanException If the customer's age is not eligible for a loan
+     */
+    public CustomerProfile getEligibleCustomerProfile(DecisionPolicy policy, Country country, String personalCode)
+            throws InvalidPersonalCodeException, NoValidLoanException {
+        long startTime = System.nanoTime();
+        CustomerProfile profile = customerProfileCache.get(country, personalCode, policy.getVersion(),
+                code -> loadCustomerProfile(policy, country, code));
+        decisionMetrics.recordCustomerProfileLookup(startTime);
+
+        if (!profile.isValidPersonalCode()) {
+            throw InvalidPersonalCodeException.INVALID_PERSONAL_CODE;
+        }
+        if (profile.getAgeRejection() != null) {
+            throw profile.getAgeRejection();
+        }
+        return profile;
+    }
+
+    /**
+     * Validates the personal ID code, verifies the customer's age and starts looking up their credit modifier.
+     * Only runs when the customer's profile is not cached or was built with an older policy.
+     *
+     * @param policy Decision policy the profile is built with
+     * @param country Country that issued the personal ID code
+     * @param personalCode ID code of the customer that made the request.
+     * @return The customer's profile, completed once the credit modifier is found
+     */
+    private CompletableFuture<CustomerProfile> loadCustomerProfile(DecisionPolicy policy, Country country,
+                                                                  String personalCode) {
+        long startTime = System.nanoTime();
+        long parsedCode = PersonalCodeParser.parse(country, personalCode);
+        boolean validPersonalCode;
+        try {
+            validPersonalCode = personalCodeValidator.isValid(parsedCode);
+        } catch (InvalidPersonalCodeException e) {
+            validPersonalCode = false;
+        } finally {
+            decisionMetrics.recordPersonalCodeValidation(startTime);
+        }
+        if (!validPersonalCode) {
+            return CompletableFuture.completedFuture(CustomerProfile.INVALID);
+        }
+
+        startTime = System.nanoTime();
+        NoValidLoanException ageRejection = null;
+        try {
+            ageValidator.verifyAgeEligibility(parsedCode);
+        } catch (NoValidLoanException e) {
+            ageRejection = e;
+        }
+        LocalDate ageBoundary = ageValidator.getEligibilityChangeDate(parsedCode);
+        decisionMetrics.recordAgeVerification(startTime);
+        if (ageRejection != null) {
+            return CompletableFuture.completedFuture(
+                    new CustomerProfile(policy.getVersion(), true, ageRejection, 0, ageBoundary));
+        }
+
+        long lookupStartTime = System.nanoTime();
+        return creditModifierProvider.getCreditModifier(country, personalCode)
+                .whenComplete((creditModifier, error) -> decisionMetrics.recordCreditModifierLookup(lookupStartTime))
+                .thenApply(creditModifier -> new CustomerProfile(policy.getVersion(), true, null, creditModifier,
+                        ageBoundary))
+                .toCompletableFuture();
+    }
+
+    /**
+     * Finds the credit modifier of the customer from the CreditModifierProvider, waiting for it if it is fetched
+     * from the credit registry.
+     *
+     * @param country Country that issued the personal ID code
+     * @param personalCode ID code of the customer that made the request.
+     * @return Credit modifier of the customer.
+     * @throws java.util.concurrent.CompletionException If the credit modifier could not be found
+     */
+    public int getCreditModifier(Country country, String personalCode) {
+        return creditModifierProvider.getCreditModifier(country, personalCode).toCompletableFuture().join();
+    }
+}
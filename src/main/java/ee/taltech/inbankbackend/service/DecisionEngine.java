@@ -1,6 +1,9 @@
 package ee.taltech.inbankbackend.service;
 
-import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.audit.AuditJournal;
+import ee.taltech.inbankbackend.audit.AuditRecord;
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
@@ -9,36 +12,59 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 
-
 /**
  * A service class that provides a method for calculating an approved loan amount and period for a customer.
- * The loan amount is calculated based on the customer's credit modifier,
- * which is determined by the last four digits of their ID code.
+ * Requests are checked by the DecisionRules first, cheapest rule first, and the loan amount is calculated based on
+ * the customer's credit modifier found by the CustomerProfileRule. Each request is decided with the decision policy
+ * in effect when it arrived, and every decision is recorded in the audit journal.
  */
 @Service
 public class DecisionEngine {
-    private final PersonalCodeValidator personalCodeValidator;
-    private final CreditScoreCalculator creditScoreCalculator;
-    private final AgeValidator ageValidator;
+    private final DecisionRules decisionRules;
+    private final CustomerProfileRule customerProfileRule;
+    private final DecisionTable decisionTable;
     private final LoanAmountCalculator loanAmountCalculator;
+    private final DecisionMetrics decisionMetrics;
+    private final DecisionResultCache decisionResultCache;
+    private final DecisionPolicyHolder policyHolder;
+    private final AuditJournal auditJournal;
 
     @Autowired
-    public DecisionEngine(PersonalCodeValidator personalCodeValidator,
-                          CreditScoreCalculator creditScoreCalculator,
-                          AgeValidator ageValidator,
-                          LoanAmountCalculator loanAmountCalculator) {
-        this.personalCodeValidator = personalCodeValidator;
-        this.creditScoreCalculator = creditScoreCalculator;
-        this.ageValidator = ageValidator;
+    public DecisionEngine(DecisionRules decisionRules,
+                          CustomerProfileRule customerProfileRule,
+                          DecisionTable decisionTable,
+                          LoanAmountCalculator loanAmountCalculator,
+                          DecisionMetrics decisionMetrics,
+                          DecisionResultCache decisionResultCache,
+                          DecisionPolicyHolder policyHolder,
+                          AuditJournal auditJournal) {
+        this.decisionRules = decisionRules;
+        this.customerProfileRule = customerProfileRule;
+        this.decisionTable = decisionTable;
         this.loanAmountCalculator = loanAmountCalculator;
+        this.decisionMetrics = decisionMetrics;
+        this.decisionResultCache = decisionResultCache;
+        this.policyHolder = policyHolder;
+        this.auditJournal = auditJournal;
+    }
+
+    /**
+     * Decides the loan of a customer with an Estonian personal ID code,
+     * see {@link #calculateApprovedLoan(Country, String, Long, int)}.
+     */
+    public Decision calculateApprovedLoan(String personalCode, Long loanAmount, int loanPeriod)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException {
+        return calculateApprovedLoan(Country.EE, personalCode, loanAmount, loanPeriod);
     }
 
     /**
      * Calculates the maximum loan amount and period for the customer based on their ID code,
      * the requested loan amount and the loan period.
-     * The loan period must be between 12 and 60 months (inclusive).
-     * The loan amount must be between 2000 and 10000€ months (inclusive).
+     * The loan period and the loan amount must be within the limits of the decision policy (inclusive).
+     * Identical requests made at the same time or shortly after each other share the same decision.
      *
+     * @param country Country that issued the personal ID code
      * @param personalCode ID code of the customer that made the request.
      * @param loanAmount Requested loan amount
      * @param loanPeriod Requested loan period
@@ -48,77 +74,111 @@ public class DecisionEngine {
      * @throws InvalidLoanPeriodException If the requested loan period is invalid
      * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
      */
-    public Decision calculateApprovedLoan(String personalCode, Long loanAmount, int loanPeriod)
+    public Decision calculateApprovedLoan(Country country, String personalCode, Long loanAmount, int loanPeriod)
             throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
             NoValidLoanException {
-        if (!personalCodeValidator.isValid(personalCode)) {
-            throw new InvalidPersonalCodeException("Invalid personal ID code!");
-        }
-
-        ageValidator.verifyAgeEligibility(personalCode);
-
-
-        if (!isLoanAmountValid(loanAmount) || !isLoanPeriodValid(loanPeriod)) {
-            throw new InvalidLoanPeriodException("Invalid loan amount or period!");
+        long startTime = System.nanoTime();
+        DecisionPolicy policy = policyHolder.getPolicy();
+        Decision decision;
+        try {
+            decision = decisionResultCache.get(policy.getVersion(), country, personalCode, loanAmount, loanPeriod,
+                    (code, amount, period) -> decide(policy, country, code, amount, period));
+        } catch (InvalidPersonalCodeException | InvalidLoanAmountException | InvalidLoanPeriodException
+                 | NoValidLoanException e) {
+            // Counted here and not where the loan is decided, so decisions shared by the cache are counted too
+            decisionMetrics.countRejection(e);
+            audit(policy, country, personalCode, loanAmount, loanPeriod, null, e.getMessage(), startTime);
+            throw e;
+        } catch (Throwable e) {
+            audit(policy, country, personalCode, loanAmount, loanPeriod, null,
+                    e.getMessage() != null ? e.getMessage() : e.toString(), startTime);
+            throw e;
         }
+        decisionMetrics.countApproved(decision.getLoanAmount(), loanAmount);
+        audit(policy, country, personalCode, loanAmount, loanPeriod, decision, null, startTime);
+        return decision;
+    }
 
-        //Calculate Credit Modifier
-        int creditModifier = getCreditModifier(personalCode);
-
-        //Calculate Credit Score
-        double creditScore =  creditScoreCalculator.calculateCreditScore(creditModifier, loanAmount, loanPeriod);
-
-        if (creditScore >= 0.1) {
-            // Find Maximum Loan Amount
-            Decision maxLoanDecision = loanAmountCalculator.findMaximumLoanAmount(loanPeriod, creditModifier);
-            if (maxLoanDecision.getLoanAmount() != null && maxLoanDecision.getLoanAmount() >= loanAmount) {
-                return maxLoanDecision;
-            }
-            return new Decision(loanAmount.intValue(), loanPeriod, null);
-        } else {
-            Decision validLoanDecision = loanAmountCalculator.findValidLoanAmount(creditModifier, loanAmount, loanPeriod);
-            if (validLoanDecision.getLoanAmount() != null && validLoanDecision.getLoanAmount() > 0) {
-                return validLoanDecision;
-            } else if (creditModifier == 0){
-                throw new InvalidLoanAmountException("No valid loan found! You are in debt.");
-            }
-            else {
-                throw new InvalidLoanAmountException("No valid loan found!");
-            }
-        }
+    /**
+     * Hands the decision or the rejection over to the audit journal.
+     */
+    private void audit(DecisionPolicy policy, Country country, String personalCode, Long loanAmount, int loanPeriod,
+                       Decision decision, String errorMessage, long startTime) {
+        auditJournal.record(new AuditRecord(System.currentTimeMillis(), policy.getVersion(), country, personalCode,
+                loanAmount == null ? -1 : loanAmount, loanPeriod,
+                decision == null ? null : decision.getLoanAmount(), decision == null ? null : decision.getLoanPeriod(),
+                errorMessage, System.nanoTime() - startTime));
     }
 
-    private boolean isLoanPeriodValid(int loanPeriod) {
-        return loanPeriod >= 12 && loanPeriod <= 48;
+    /**
+     * Decides the loan for a request the DecisionResultCache has no decision for, once the application has passed
+     * the DecisionRules.
+     */
+    private Decision decide(DecisionPolicy policy, Country country, String personalCode, Long loanAmount,
+                            int loanPeriod)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException {
+        LoanApplication application = new LoanApplication(policy, country, personalCode, loanAmount,
+                loanPeriod);
+        decisionRules.check(application);
+        CustomerProfile profile = application.getCustomerProfile();
+
+        //Look up the precomputed decision
+        long startTime = System.nanoTime();
+        int decision = decisionTable.decide(policy, profile.getCreditModifier(), loanAmount, loanPeriod);
+        decisionMetrics.recordLoanDecision(startTime);
+
+        return switch (DecisionTable.outcome(decision)) {
+            case DecisionTable.APPROVED ->
+                    new Decision(DecisionTable.loanAmount(decision), DecisionTable.loanPeriod(decision), null);
+            case DecisionTable.IN_DEBT -> throw InvalidLoanAmountException.IN_DEBT;
+            default -> throw InvalidLoanAmountException.NO_VALID_LOAN;
+        };
     }
 
-    private boolean isLoanAmountValid(Long loanAmount) {
-        return loanAmount >= 2000 && loanAmount <= 10000;
+    /**
+     * Finds the offer matrix of a customer with an Estonian personal ID code, see
+     * {@link #calculateOfferMatrix(Country, String)}.
+     */
+    public OfferMatrix calculateOfferMatrix(String personalCode)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, NoValidLoanException {
+        return calculateOfferMatrix(Country.EE, personalCode);
     }
 
     /**
-     * Calculates the credit modifier of the customer to according to the last two digits of their ID code.
-     * Debt - 00...74
-     * Segment 1 - 75...84
-     * Segment 2 - 85...94
-     * Segment 3 - 95...99
+     * Finds the maximum loan amount the customer qualifies for with every loan period of the decision policy,
+     * so all feasible loans can be shown at once.
      *
+     * @param country Country that issued the personal ID code
      * @param personalCode ID code of the customer that made the request.
-     * @return Segment to which the customer belongs.
+     * @return The maximum approved loan amount of every loan period, 0 for periods without an approved amount
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanAmountException If the customer is in debt or no loan can be approved with any period
+     * @throws NoValidLoanException If the customer's age is not eligible for a loan
      */
-    public int getCreditModifier(String personalCode) {
-        int segment = Integer.parseInt(personalCode.substring(personalCode.length() -2));
+    public OfferMatrix calculateOfferMatrix(Country country, String personalCode)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, NoValidLoanException {
+        DecisionPolicy policy = policyHolder.getPolicy();
+        CustomerProfile profile;
+        try {
+            profile = customerProfileRule.getEligibleCustomerProfile(policy, country, personalCode);
+        } catch (InvalidPersonalCodeException | NoValidLoanException e) {
+            decisionMetrics.countRejection(e);
+            throw e;
+        }
+        if (profile.getCreditModifier() == 0) {
+            throw InvalidLoanAmountException.IN_DEBT;
+        }
 
-        if (segment < 75) return 0;
-        else if (segment <85) return DecisionEngineConstants.SEGMENT_1_CREDIT_MODIFIER;
-        else if (segment <95) return DecisionEngineConstants.SEGMENT_2_CREDIT_MODIFIER;
+        long startTime = System.nanoTime();
+        int[] maximumLoanAmounts = loanAmountCalculator.findMaximumLoanAmounts(policy, profile.getCreditModifier());
+        decisionMetrics.recordLoanCalculation(startTime);
 
-        return DecisionEngineConstants.SEGMENT_3_CREDIT_MODIFIER;
+        for (int maximumLoanAmount : maximumLoanAmounts) {
+            if (maximumLoanAmount > 0) {
+                return new OfferMatrix(policy.getMinimumLoanPeriod(), maximumLoanAmounts);
+            }
+        }
+        throw InvalidLoanAmountException.NO_VALID_LOAN;
     }
-
-
-
-
-
-
 }
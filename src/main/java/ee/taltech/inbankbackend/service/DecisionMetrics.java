@@ -0,0 +1,130 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every decision stage and counts the decision outcomes.
+ * All meters are registered up front, so recording on the request path never builds tags or looks meters up.
+ * Stages are timed by passing the System.nanoTime() taken when the stage started.
+ */
+@Component
+public class DecisionMetrics {
+    private static final String STAGE_TIMER = "decision.stage";
+    private static final String OUTCOME_COUNTER = "decision.outcome";
+
+    private final Timer customerProfileLookup;
+    private final Timer personalCodeValidation;
+    private final Timer ageVerification;
+    private final Timer creditModifierLookup;
+    private final Timer loanDecision;
+    private final Timer loanCalculation;
+
+    private final Counter approved;
+    private final Counter reduced;
+    private final Counter underage;
+    private final Counter overage;
+    private final Counter debt;
+    private final Counter noValidLoan;
+    private final Counter invalidInput;
+
+    @Autowired
+    public DecisionMetrics(MeterRegistry meterRegistry) {
+        customerProfileLookup = stageTimer(meterRegistry, "customer_profile_lookup");
+        personalCodeValidation = stageTimer(meterRegistry, "personal_code_validation");
+        ageVerification = stageTimer(meterRegistry, "age_verification");
+        creditModifierLookup = stageTimer(meterRegistry, "credit_modifier_lookup");
+        loanDecision = stageTimer(meterRegistry, "loan_decision");
+        loanCalculation = stageTimer(meterRegistry, "loan_calculation");
+
+        approved = outcomeCounter(meterRegistry, "approved");
+        reduced = outcomeCounter(meterRegistry, "reduced");
+        underage = outcomeCounter(meterRegistry, "underage");
+        overage = outcomeCounter(meterRegistry, "overage");
+        debt = outcomeCounter(meterRegistry, "debt");
+        noValidLoan = outcomeCounter(meterRegistry, "no_valid_loan");
+        invalidInput = outcomeCounter(meterRegistry, "invalid_input");
+    }
+
+    /**
+     * Records finding the customer's profile, which includes the three stages below when it is not cached.
+     */
+    public void recordCustomerProfileLookup(long startTime) {
+        record(customerProfileLookup, startTime);
+    }
+
+    public void recordPersonalCodeValidation(long startTime) {
+        record(personalCodeValidation, startTime);
+    }
+
+    public void recordAgeVerification(long startTime) {
+        record(ageVerification, startTime);
+    }
+
+    public void recordCreditModifierLookup(long startTime) {
+        record(creditModifierLookup, startTime);
+    }
+
+    /**
+     * Records finding the loan decision, which is usually a lookup in the DecisionTable.
+     */
+    public void recordLoanDecision(long startTime) {
+        record(loanDecision, startTime);
+    }
+
+    /**
+     * Records calculating a loan decision the DecisionTable does not cover: the credit score calculation and the
+     * loan amount searches of the LoanAmountCalculator.
+     */
+    public void recordLoanCalculation(long startTime) {
+        record(loanCalculation, startTime);
+    }
+
+    /**
+     * Counts an approved loan as reduced if less than the requested loan amount was approved.
+     */
+    public void countApproved(int approvedAmount, long requestedAmount) {
+        (approvedAmount < requestedAmount ? reduced : approved).increment();
+    }
+
+    /**
+     * Counts a rejected application by its rejection: debt, no valid loan, underage, overage or invalid input.
+     */
+    public void countRejection(Throwable rejection) {
+        if (rejection == InvalidLoanAmountException.IN_DEBT) {
+            debt.increment();
+        } else if (rejection instanceof InvalidLoanAmountException) {
+            noValidLoan.increment();
+        } else if (rejection instanceof NoValidLoanException) {
+            (rejection == NoValidLoanException.OVERAGE ? overage : underage).increment();
+        } else {
+            invalidInput.increment();
+        }
+    }
+
+    private static void record(Timer timer, long startTime) {
+        timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in a stage of the loan decision")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(OUTCOME_COUNTER)
+                .description("Number of loan decisions per outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package ee.taltech.inbankbackend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Shares the decision of identical concurrent requests: the first request for a country, personal ID code, loan amount
+ * and loan period decides the loan, identical requests arriving meanwhile wait for its decision instead of deciding it
+ * again. Requests decided with different decision policy versions are not identical. Decisions and rejections stay
+ * cached for the configured TTL after they are made, unexpected errors are not cached. Hits and misses are published under the cache name "decision_results".
+ */
+@Service
+public class DecisionResultCache {
+    private final AsyncCache<DecisionKey, Outcome> cache;
+
+    @Autowired
+    public DecisionResultCache(MeterRegistry meterRegistry,
+                               @Value("${decision.result-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${decision.result-cache.ttl:2s}") Duration ttl) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "decision_results");
+    }
+
+    /**
+     * Returns the decision of an identical request in flight or decided within the TTL, otherwise decides the loan
+     * on the calling thread.
+     *
+     * @param policyVersion Version of the decision policy the loader decides with
+     * @param country Country that issued the personal ID code
+     * @param personalCode ID code of the customer that made the request.
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @param loader Decides the loan if no identical request did
+     * @return The decision shared by all identical requests
+     */
+    public Decision get(long policyVersion, Country country, String personalCode, Long loanAmount, int loanPeriod,
+                        DecisionLoader loader)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException {
+        CompletableFuture<Outcome> newOutcome = new CompletableFuture<>();
+        CompletableFuture<Outcome> outcome = cache.get(
+                new DecisionKey(policyVersion, country, personalCode, loanAmount, loanPeriod), (key, executor) -> newOutcome);
+
+        if (outcome == newOutcome) {
+            try {
+                newOutcome.complete(new Outcome(loader.decide(personalCode, loanAmount, loanPeriod), null));
+            } catch (InvalidPersonalCodeException | InvalidLoanAmountException | InvalidLoanPeriodException
+                     | NoValidLoanException e) {
+                newOutcome.complete(new Outcome(null, e));
+            } catch (RuntimeException | Error e) {
+                newOutcome.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        return getDecision(outcome);
+    }
+
+    private static Decision getDecision(CompletableFuture<Outcome> outcome)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException {
+        Outcome result;
+        try {
+            result = outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+
+        if (result.rejection == null) return result.decision;
+        if (result.rejection instanceof InvalidPersonalCodeException rejection) throw rejection;
+        if (result.rejection instanceof InvalidLoanAmountException rejection) throw rejection;
+        if (result.rejection instanceof InvalidLoanPeriodException rejection) throw rejection;
+        throw (NoValidLoanException) result.rejection;
+    }
+
+    /**
+     * Decides a loan, see {@link DecisionEngine#calculateApprovedLoan(Country, String, Long, int)}.
+     */
+    @FunctionalInterface
+    public interface DecisionLoader {
+        Decision decide(String personalCode, Long loanAmount, int loanPeriod)
+                throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+                NoValidLoanException;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class DecisionKey {
+        private final long policyVersion;
+        private final Country country;
+        private final String personalCode;
+        private final Long loanAmount;
+        private final int loanPeriod;
+    }
+
+    @AllArgsConstructor
+    private static final class Outcome {
+        private final Decision decision;
+        private final Throwable rejection;
+    }
+}
@@ -0,0 +1,29 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+
+/**
+ * A check every loan application has to pass before the loan is decided.
+ * The DecisionRules run the rules from the cheapest to the most expensive and stop at the first rejection.
+ */
+public interface DecisionRule {
+
+    /**
+     * @return Name of the rule in metrics and configuration, in snake case
+     */
+    String getName();
+
+    /**
+     * @return Relative cost of checking an application, e.g. 1 for a comparison and 100 for a cache lookup
+     */
+    int getCost();
+
+    /**
+     * Checks the application, rejecting it with the exception the DecisionEngine reports to the customer.
+     * @param application The application to check
+     */
+    void check(LoanApplication application)
+            throws InvalidPersonalCodeException, InvalidLoanPeriodException, NoValidLoanException;
+}
@@ -0,0 +1,98 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every DecisionRule on a loan application, cheapest first, and stops at the first rejection, so requests with
+ * an out-of-range amount or period never pay for the customer profile lookup.
+ * The cost of a rule can be overridden with the decision.rule.&lt;name&gt;.cost property to change the order. Every
+ * rule is timed and its rejections are counted as decision.rule{rule=&lt;name&gt;} and
+ * decision.rule.rejections{rule=&lt;name&gt;}. Anything else a rule throws is not a rejection and is counted as
+ * decision.rule.errors{rule=&lt;name&gt;}.
+ */
+@Slf4j
+@Component
+public class DecisionRules {
+    private final DecisionRule[] rules;
+    private final Timer[] timers;
+    private final Counter[] rejections;
+    private final Counter[] errors;
+
+    @Autowired
+    public DecisionRules(List<DecisionRule> rules, MeterRegistry meterRegistry, Environment environment) {
+        this.rules = rules.stream()
+                .sorted(Comparator.<DecisionRule>comparingInt(rule -> cost(rule, environment))
+                        .thenComparing(DecisionRule::getName))
+                .toArray(DecisionRule[]::new);
+        timers = new Timer[this.rules.length];
+        rejections = new Counter[this.rules.length];
+        errors = new Counter[this.rules.length];
+
+        for (int i = 0; i < this.rules.length; i++) {
+            String name = this.rules[i].getName();
+            timers[i] = Timer.builder("decision.rule")
+                    .description("Time spent checking a loan application with a decision rule")
+                    .tag("rule", name)
+                    .register(meterRegistry);
+            rejections[i] = Counter.builder("decision.rule.rejections")
+                    .description("Number of loan applications rejected by a decision rule")
+                    .tag("rule", name)
+                    .register(meterRegistry);
+            errors[i] = Counter.builder("decision.rule.errors")
+                    .description("Number of loan applications a decision rule failed to check")
+                    .tag("rule", name)
+                    .register(meterRegistry);
+        }
+        log.info("Decision rules in order: {}", getRuleNames());
+    }
+
+    /**
+     * Checks the application with every rule in order of cost.
+     * @param application The application to check
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanPeriodException If the requested loan amount or period is invalid
+     * @throws NoValidLoanException If the customer's age is not eligible for a loan
+     */
+    public void check(LoanApplication application)
+            throws InvalidPersonalCodeException, InvalidLoanPeriodException, NoValidLoanException {
+        for (int i = 0; i < rules.length; i++) {
+            long startTime = System.nanoTime();
+            try {
+                rules[i].check(application);
+            } catch (InvalidPersonalCodeException | InvalidLoanPeriodException | NoValidLoanException e) {
+                rejections[i].increment();
+                throw e;
+            } catch (RuntimeException | Error e) {
+                errors[i].increment();
+                throw e;
+            } finally {
+                timers[i].record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * @return Names of the rules in the order they run
+     */
+    public List<String> getRuleNames() {
+        return Arrays.stream(rules).map(DecisionRule::getName).toList();
+    }
+
+    private static int cost(DecisionRule rule, Environment environment) {
+        return environment.getProperty("decision.rule." + rule.getName() + ".cost", Integer.class, rule.getCost());
+    }
+}
@@ -0,0 +1,150 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the precomputed loan decisions of a decision policy for every credit modifier of its segments, every loan
+ * amount on its loan amount grid and every loan period within its limits. Each decision is packed into a single int
+ * of the flat table: bits 10-31 hold the approved loan amount, bits 2-9 the approved loan period and bits 0-1 the
+ * outcome code, the DecisionPolicy keeps its loans within these bits and its grid small enough. The table of a new
+ * policy is built before the policy is published and published together with it.
+ */
+@Service
+public class DecisionTable {
+    public static final int APPROVED = 1;
+    public static final int NO_VALID_LOAN = 2;
+    public static final int IN_DEBT = 3;
+
+    private final CreditScoreCalculator creditScoreCalculator;
+    private final LoanAmountCalculator loanAmountCalculator;
+    private final DecisionMetrics decisionMetrics;
+    private final DecisionPolicyHolder.PolicyArtifact<Table> table;
+
+    @Autowired
+    public DecisionTable(CreditScoreCalculator creditScoreCalculator, LoanAmountCalculator loanAmountCalculator,
+                         DecisionMetrics decisionMetrics, DecisionPolicyHolder policyHolder) {
+        this.creditScoreCalculator = creditScoreCalculator;
+        this.loanAmountCalculator = loanAmountCalculator;
+        this.decisionMetrics = decisionMetrics;
+        table = policyHolder.onUpdate(this::build);
+    }
+
+    /**
+     * Calculates the table for the given policy, the DecisionPolicyHolder publishes it together with the policy, so
+     * lookups running in parallel always see either the old or the new table.
+     * @param policy Decision policy to calculate the table for
+     */
+    private Table build(DecisionPolicy policy) {
+        int[] modifiers = policy.getCreditModifiers();
+        int amountCount = policy.getDescendingLoanAmounts().length;
+        int periodCount = policy.getLoanPeriods().length;
+        int[] entries = new int[modifiers.length * amountCount * periodCount];
+
+        for (int segment = 0; segment < modifiers.length; segment++) {
+            for (int amountIndex = 0; amountIndex < amountCount; amountIndex++) {
+                int loanAmount = policy.getMinimumLoanAmount() + amountIndex * policy.getLoanAmountStep();
+
+                for (int periodIndex = 0; periodIndex < periodCount; periodIndex++) {
+                    int loanPeriod = policy.getMinimumLoanPeriod() + periodIndex;
+                    entries[(segment * amountCount + amountIndex) * periodCount + periodIndex] =
+                            calculate(policy, modifiers[segment], loanAmount, loanPeriod);
+                }
+            }
+        }
+        return new Table(policy, entries, amountCount, periodCount);
+    }
+
+    /**
+     * Decides the loan for a customer with the given credit modifier. Requests covered by the table are a single
+     * array lookup, anything else (amounts off the loan amount grid, unknown credit modifiers, a policy the table
+     * was not built for) is calculated on the spot.
+     * @param policy Decision policy to apply
+     * @param creditModifier Credit modifier of the customer
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @return The packed decision, see {@link #outcome(int)}, {@link #loanAmount(int)} and {@link #loanPeriod(int)}
+     */
+    public int decide(DecisionPolicy policy, int creditModifier, long loanAmount, int loanPeriod) {
+        Table current = table.get();
+        int segment = current.policy == policy ? current.segmentOf(creditModifier) : -1;
+        long amountOffset = loanAmount - policy.getMinimumLoanAmount();
+        long amountIndex = amountOffset / policy.getLoanAmountStep();
+        int periodIndex = loanPeriod - policy.getMinimumLoanPeriod();
+
+        if (segment < 0 || amountOffset < 0 || amountOffset % policy.getLoanAmountStep() != 0
+                || amountIndex >= current.amountCount || periodIndex < 0 || periodIndex >= current.periodCount) {
+            long startTime = System.nanoTime();
+            int decision = calculate(policy, creditModifier, loanAmount, loanPeriod);
+            decisionMetrics.recordLoanCalculation(startTime);
+            return decision;
+        }
+        return current.entries[(segment * current.amountCount + (int) amountIndex) * current.periodCount
+                + periodIndex];
+    }
+
+    public static int pack(int outcome, int loanAmount, int loanPeriod) {
+        return loanAmount << 10 | loanPeriod << 2 | outcome;
+    }
+
+    public static int outcome(int decision) {
+        return decision & 0x3;
+    }
+
+    public static int loanAmount(int decision) {
+        return decision >>> 10;
+    }
+
+    public static int loanPeriod(int decision) {
+        return (decision >>> 2) & 0xFF;
+    }
+
+    /**
+     * Decides the loan the same way the DecisionEngine always has: if the requested loan is approved, the maximum
+     * loan is offered instead, otherwise the amount is lowered and the period raised until a loan is approved.
+     */
+    private int calculate(DecisionPolicy policy, int creditModifier, long loanAmount, int loanPeriod) {
+        double creditScore = creditScoreCalculator.calculateCreditScore(creditModifier, loanAmount, loanPeriod);
+
+        if (creditScore >= policy.getMinimumCreditScore()) {
+            Decision maxLoanDecision = loanAmountCalculator.findMaximumLoanAmount(policy, loanPeriod, creditModifier);
+            if (maxLoanDecision.getLoanAmount() != null && maxLoanDecision.getLoanAmount() >= loanAmount) {
+                return pack(APPROVED, maxLoanDecision.getLoanAmount(), maxLoanDecision.getLoanPeriod());
+            }
+            return pack(APPROVED, (int) loanAmount, loanPeriod);
+        }
+
+        Decision validLoanDecision =
+                loanAmountCalculator.findValidLoanAmount(policy, creditModifier, loanAmount, loanPeriod);
+        if (validLoanDecision.getLoanAmount() != null && validLoanDecision.getLoanAmount() > 0) {
+            return pack(APPROVED, validLoanDecision.getLoanAmount(), validLoanDecision.getLoanPeriod());
+        }
+        return pack(creditModifier == 0 ? IN_DEBT : NO_VALID_LOAN, 0, 0);
+    }
+
+    private static final class Table {
+        private final DecisionPolicy policy;
+        private final int[] entries;
+        private final int amountCount;
+        private final int periodCount;
+
+        private Table(DecisionPolicy policy, int[] entries, int amountCount, int periodCount) {
+            this.policy = policy;
+            this.entries = entries;
+            this.amountCount = amountCount;
+            this.periodCount = periodCount;
+        }
+
+        private int segmentOf(int creditModifier) {
+            int[] creditModifiers = policy.getCreditModifiers();
+            for (int segment = 0; segment < creditModifiers.length; segment++) {
+                if (creditModifiers[segment] == creditModifier) {
+                    return segment;
+                }
+            }
+            return -1;
+        }
+    }
+}
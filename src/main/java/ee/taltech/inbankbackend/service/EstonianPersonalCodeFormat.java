@@ -0,0 +1,91 @@
+package ee.taltech.inbankbackend.service;
+
+import lombok.Getter;
+
+import static ee.taltech.inbankbackend.service.PersonalCodeParser.digit;
+
+/**
+ * Estonian personal ID codes, GYYMMDDSSSC: the gender and century digit G, the date of birth, the serial number SSS
+ * and the checksum digit C from two rounds of weights. Lithuanian personal ID codes share the layout and
+ * the checksum, so this format reads them too.
+ */
+public final class EstonianPersonalCodeFormat implements PersonalCodeFormat {
+    private static final int CODE_LENGTH = 11;
+    private static final int[] FIRST_WEIGHTS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 1};
+    private static final int[] SECOND_WEIGHTS = {3, 4, 5, 6, 7, 8, 9, 1, 2, 3};
+
+    @Getter
+    private final Country country;
+
+    /**
+     * @param country Estonia or Lithuania
+     */
+    public EstonianPersonalCodeFormat(Country country) {
+        this.country = country;
+    }
+
+    @Override
+    public long parse(CharSequence personalCode) {
+        if (personalCode.length() != CODE_LENGTH || !PersonalCodeParser.isDigits(personalCode, 0, CODE_LENGTH)) {
+            return PersonalCodeParser.INVALID;
+        }
+
+        int firstDigit = digit(personalCode, 0);
+        int century = switch (firstDigit) {
+            case 1, 2 -> 1800;
+            case 3, 4 -> 1900;
+            case 5, 6 -> 2000;
+            default -> -1;
+        };
+        int year = century + digit(personalCode, 1) * 10 + digit(personalCode, 2);
+        int month = digit(personalCode, 3) * 10 + digit(personalCode, 4);
+        int day = digit(personalCode, 5) * 10 + digit(personalCode, 6);
+
+        if (century < 0 || !PersonalCodeParser.isValidDate(year, month, day)) {
+            return PersonalCodeParser.INVALID;
+        }
+
+        int serial = digit(personalCode, 7) * 100 + digit(personalCode, 8) * 10 + digit(personalCode, 9);
+        int checksum = digit(personalCode, 10);
+        int birthDate = year * 10000 + month * 100 + day;
+
+        return PersonalCodeParser.pack(country, firstDigit, birthDate, serial, checksum);
+    }
+
+    /**
+     * Verifies the checksum digit using the two rounds of weights, a remainder of 10 in both rounds means 0.
+     */
+    @Override
+    public boolean hasValidChecksum(long personalCode) {
+        int checksum = weightedSum(personalCode, FIRST_WEIGHTS) % 11;
+        if (checksum == 10) {
+            checksum = weightedSum(personalCode, SECOND_WEIGHTS) % 11;
+            if (checksum == 10) {
+                checksum = 0;
+            }
+        }
+        return checksum == PersonalCodeParser.checksum(personalCode);
+    }
+
+    /**
+     * The last two digits of the code, the last digit of the serial number and the checksum digit.
+     */
+    @Override
+    public int segmentEnding(long personalCode) {
+        return PersonalCodeParser.serial(personalCode) % 10 * 10 + PersonalCodeParser.checksum(personalCode);
+    }
+
+    private static int weightedSum(long personalCode, int[] weights) {
+        int birthDate = PersonalCodeParser.birthDate(personalCode);
+        int serial = PersonalCodeParser.serial(personalCode);
+        int yearOfCentury = birthDate / 10000 % 100;
+        int month = birthDate / 100 % 100;
+        int day = birthDate % 100;
+
+        return PersonalCodeParser.firstDigit(personalCode) * weights[0]
+                + yearOfCentury / 10 * weights[1] + yearOfCentury % 10 * weights[2]
+                + month / 10 * weights[3] + month % 10 * weights[4]
+                + day / 10 * weights[5] + day % 10 * weights[6]
+                + serial / 100 * weights[7] + serial / 10 % 10 * weights[8] + serial % 10 * weights[9];
+    }
+}
@@ -0,0 +1,66 @@
+package ee.taltech.inbankbackend.service;
+
+import static ee.taltech.inbankbackend.service.PersonalCodeParser.digit;
+
+/**
+ * Finnish personal identity codes, DDMMYYCZZZQ: the date of birth, the century sign C, the individual number ZZZ
+ * (002-899, 900-999 are temporary codes) and the check character Q, the nine digits DDMMYYZZZ mod 31 looked up in
+ * a table of digits and letters. The index of the check character is packed as the checksum.
+ */
+public final class FinnishPersonalCodeFormat implements PersonalCodeFormat {
+    private static final int CODE_LENGTH = 11;
+    /**
+     * Century signs by the index packed as the first digit: + for the 1800s, - Y X W V U for the 1900s and
+     * A B C D E F for the 2000s.
+     */
+    private static final String CENTURY_SIGNS = "+-YXWVUABCDEF";
+    private static final String CHECK_CHARACTERS = "0123456789ABCDEFHJKLMNPRSTUVWXY";
+
+    @Override
+    public Country getCountry() {
+        return Country.FI;
+    }
+
+    @Override
+    public long parse(CharSequence personalCode) {
+        if (personalCode.length() != CODE_LENGTH || !PersonalCodeParser.isDigits(personalCode, 0, 6)
+                || !PersonalCodeParser.isDigits(personalCode, 7, 10)) {
+            return PersonalCodeParser.INVALID;
+        }
+
+        int centurySign = CENTURY_SIGNS.indexOf(personalCode.charAt(6));
+        int checksum = CHECK_CHARACTERS.indexOf(personalCode.charAt(10));
+        int century = centurySign == 0 ? 1800 : centurySign <= 6 ? 1900 : 2000;
+        int day = digit(personalCode, 0) * 10 + digit(personalCode, 1);
+        int month = digit(personalCode, 2) * 10 + digit(personalCode, 3);
+        int year = century + digit(personalCode, 4) * 10 + digit(personalCode, 5);
+        int serial = digit(personalCode, 7) * 100 + digit(personalCode, 8) * 10 + digit(personalCode, 9);
+
+        if (centurySign < 0 || checksum < 0 || serial < 2 || serial > 899
+                || !PersonalCodeParser.isValidDate(year, month, day)) {
+            return PersonalCodeParser.INVALID;
+        }
+
+        int birthDate = year * 10000 + month * 100 + day;
+        return PersonalCodeParser.pack(Country.FI, centurySign, birthDate, serial, checksum);
+    }
+
+    @Override
+    public boolean hasValidChecksum(long personalCode) {
+        int birthDate = PersonalCodeParser.birthDate(personalCode);
+        int yearOfCentury = birthDate / 10000 % 100;
+        int month = birthDate / 100 % 100;
+        int day = birthDate % 100;
+
+        int number = ((day * 100 + month) * 100 + yearOfCentury) * 1000 + PersonalCodeParser.serial(personalCode);
+        return number % 31 == PersonalCodeParser.checksum(personalCode);
+    }
+
+    /**
+     * The last two digits of the individual number, as the code ends with a check character that may be a letter.
+     */
+    @Override
+    public int segmentEnding(long personalCode) {
+        return PersonalCodeParser.serial(personalCode) % 100;
+    }
+}
@@ -0,0 +1,78 @@
+package ee.taltech.inbankbackend.service;
+
+import static ee.taltech.inbankbackend.service.PersonalCodeParser.digit;
+
+/**
+ * Latvian personal ID codes, DDMMYY-CNNNX with or without the hyphen: the date of birth, the century digit C
+ * (0 - 1800s, 1 - 1900s, 2 - 2000s), the serial number NNN and the checksum digit X.
+ * Codes issued since July 2017 without a date of birth (starting with 32) are not accepted, as the age of their
+ * holder can not be verified from the code.
+ */
+public final class LatvianPersonalCodeFormat implements PersonalCodeFormat {
+    private static final int[] WEIGHTS = {1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+
+    @Override
+    public Country getCountry() {
+        return Country.LV;
+    }
+
+    @Override
+    public long parse(CharSequence personalCode) {
+        // Index of the century digit, after the hyphen if there is one
+        int c;
+        if (personalCode.length() == 12 && personalCode.charAt(6) == '-') {
+            c = 7;
+        } else if (personalCode.length() == 11) {
+            c = 6;
+        } else {
+            return PersonalCodeParser.INVALID;
+        }
+        if (!PersonalCodeParser.isDigits(personalCode, 0, 6)
+                || !PersonalCodeParser.isDigits(personalCode, c, c + 5)) {
+            return PersonalCodeParser.INVALID;
+        }
+
+        int centuryDigit = digit(personalCode, c);
+        int day = digit(personalCode, 0) * 10 + digit(personalCode, 1);
+        int month = digit(personalCode, 2) * 10 + digit(personalCode, 3);
+        int year = 1800 + centuryDigit * 100 + digit(personalCode, 4) * 10 + digit(personalCode, 5);
+
+        if (centuryDigit > 2 || !PersonalCodeParser.isValidDate(year, month, day)) {
+            return PersonalCodeParser.INVALID;
+        }
+
+        int serial = digit(personalCode, c + 1) * 100 + digit(personalCode, c + 2) * 10 + digit(personalCode, c + 3);
+        int checksum = digit(personalCode, c + 4);
+        int birthDate = year * 10000 + month * 100 + day;
+
+        return PersonalCodeParser.pack(Country.LV, centuryDigit, birthDate, serial, checksum);
+    }
+
+    /**
+     * Verifies the checksum digit, (1101 - weighted sum of the first ten digits) mod 11. Codes whose remainder is
+     * 10 are never issued.
+     */
+    @Override
+    public boolean hasValidChecksum(long personalCode) {
+        int birthDate = PersonalCodeParser.birthDate(personalCode);
+        int serial = PersonalCodeParser.serial(personalCode);
+        int yearOfCentury = birthDate / 10000 % 100;
+        int month = birthDate / 100 % 100;
+        int day = birthDate % 100;
+
+        int sum = day / 10 * WEIGHTS[0] + day % 10 * WEIGHTS[1]
+                + month / 10 * WEIGHTS[2] + month % 10 * WEIGHTS[3]
+                + yearOfCentury / 10 * WEIGHTS[4] + yearOfCentury % 10 * WEIGHTS[5]
+                + PersonalCodeParser.firstDigit(personalCode) * WEIGHTS[6]
+                + serial / 100 * WEIGHTS[7] + serial / 10 % 10 * WEIGHTS[8] + serial % 10 * WEIGHTS[9];
+        return (1101 - sum) % 11 == PersonalCodeParser.checksum(personalCode);
+    }
+
+    /**
+     * The last two digits of the code, the last digit of the serial number and the checksum digit.
+     */
+    @Override
+    public int segmentEnding(long personalCode) {
+        return PersonalCodeParser.serial(personalCode) % 10 * 10 + PersonalCodeParser.checksum(personalCode);
+    }
+}
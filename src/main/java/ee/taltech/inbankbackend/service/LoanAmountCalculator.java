@@ -1,6 +1,6 @@
 package ee.taltech.inbankbackend.service;
 
-import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.config.DecisionPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,55 +16,196 @@ public class LoanAmountCalculator {
     /**
      * Finds the valid loan amount and period. If loan amount is too high, it is lowered until it is valid and if period
      * is too low, it is highered until a valid amount and period are found.
+     * Monotonic credit score calculators are solved by binary search, other calculators by scanning the approval mask
+     * of every combination.
+     * @param policy Decision policy to apply
      * @param creditModifier Credit modifier of the customer
      * @param loanAmount Requested loan amount
      * @param requestedPeriod Requested loan period
      * @return A Decision object containing the approved loan amount and period, and an error message (if any)
      */
-    public Decision findValidLoanAmount(int creditModifier, Long loanAmount, int requestedPeriod) {
-        int currentLoanAmount = loanAmount.intValue();
-
-        // Decrease loan amount step by step until it's valid.
-        while (currentLoanAmount >= DecisionEngineConstants.MINIMUM_LOAN_AMOUNT) {
-            int period = requestedPeriod;
+    public Decision findValidLoanAmount(DecisionPolicy policy, int creditModifier, long loanAmount,
+                                        int requestedPeriod) {
+        if (!creditScoreCalculator.isMonotonic()) {
+            return scanValidLoanAmount(policy, creditModifier, loanAmount, requestedPeriod);
+        }
 
-            // Try increasing the period if the requested period is not enough.
-            while (period <= DecisionEngineConstants.MAXIMUM_LOAN_PERIOD) {
-                double creditScore = creditScoreCalculator.calculateCreditScore(creditModifier, (long) currentLoanAmount, period);
+        if (requestedPeriod <= policy.getMaximumLoanPeriod()) {
+            // The longest reachable period approves the most, so it decides whether any amount is approvable at all.
+            int periodSteps = (policy.getMaximumLoanPeriod() - requestedPeriod) / policy.getLoanPeriodStep();
+            int longestPeriod = requestedPeriod + periodSteps * policy.getLoanPeriodStep();
+            int approvedAmount = findLargestApprovedAmount(policy, creditModifier, (int) loanAmount, longestPeriod);
 
-                if (creditScore >= 0.1) {
-                    return new Decision(currentLoanAmount, period, null);
-                }
-                period += 6;
+            if (approvedAmount >= 0) {
+                return new Decision(approvedAmount, findShortestApprovedPeriod(policy, creditModifier, approvedAmount,
+                        requestedPeriod, periodSteps), null);
             }
-            currentLoanAmount -= 100;
         }
         return new Decision(0, 0, "No valid loan found after adjusting amount and period.");
     }
 
     /**
      * Finds the maximum loan amount the customer qualifies for, within the allowed period.
+     * Monotonic credit score calculators are solved by binary search, other calculators by scanning the approval mask
+     * of every combination.
+     * @param policy Decision policy to apply
      * @param requestedLoanPeriod Requested loan period
      * @param creditModifier The customer's credit modifier
      * @return A Decision object containing the maximum approved loan amount and period, and an error message (if any)
      */
-    public Decision findMaximumLoanAmount(int requestedLoanPeriod, int creditModifier) {
-        Long maxLoanAmount = Long.valueOf(DecisionEngineConstants.MAXIMUM_LOAN_AMOUNT);
+    public Decision findMaximumLoanAmount(DecisionPolicy policy, int requestedLoanPeriod, int creditModifier) {
+        if (!creditScoreCalculator.isMonotonic()) {
+            return scanMaximumLoanAmount(policy, requestedLoanPeriod, creditModifier);
+        }
 
-        for (int period = DecisionEngineConstants.MAXIMUM_LOAN_PERIOD; period >= requestedLoanPeriod ; period -= 6) {
-            Long currentAmount = maxLoanAmount;
+        if (requestedLoanPeriod <= policy.getMaximumLoanPeriod()) {
+            // No shorter period can approve an amount that the maximum period rejects.
+            int approvedAmount = findLargestApprovedAmount(policy, creditModifier, policy.getMaximumLoanAmount(),
+                    policy.getMaximumLoanPeriod());
+
+            if (approvedAmount >= 0) {
+                return new Decision(approvedAmount, policy.getMaximumLoanPeriod(), null);
+            }
+        }
+        return new Decision(0, 0, "No valid maximum loan found.");
+    }
+
+    /**
+     * Finds the maximum loan amount the customer qualifies for with each loan period, scoring the whole grid of loan
+     * amounts and periods at once.
+     * @param policy Decision policy to apply
+     * @param creditModifier The customer's credit modifier
+     * @return The maximum approved loan amount of every loan period from the minimum to the maximum loan period,
+     * 0 for periods without an approved amount
+     */
+    public int[] findMaximumLoanAmounts(DecisionPolicy policy, int creditModifier) {
+        int[] loanAmounts = policy.getDescendingLoanAmounts();
+        int[] loanPeriods = policy.getLoanPeriods();
+        long[] mask = creditScoreCalculator.calculateApprovalMask(creditModifier, loanAmounts, loanPeriods,
+                policy.getMinimumCreditScore());
+        int[] maximumLoanAmounts = new int[loanPeriods.length];
 
-            while (currentAmount >= DecisionEngineConstants.MINIMUM_LOAN_AMOUNT) {
-                double creditScore = creditScoreCalculator.calculateCreditScore(creditModifier, currentAmount, period);
+        for (int periodIndex = 0; periodIndex < loanPeriods.length; periodIndex++) {
+            int amountIndex = ApprovalMask.firstApprovedAmount(mask, loanAmounts.length, periodIndex);
+            maximumLoanAmounts[periodIndex] = amountIndex < 0 ? 0 : loanAmounts[amountIndex];
+        }
+        return maximumLoanAmounts;
+    }
+
+    /**
+     * Binary searches the amounts topAmount, topAmount - step, ... down to the minimum loan amount for the largest
+     * approved one.
+     * @param policy Decision policy to apply
+     * @param creditModifier Credit modifier of the customer
+     * @param topAmount Largest amount to consider
+     * @param period Loan period to score the amounts with
+     * @return The largest approved amount, or -1 if none of the amounts is approved
+     */
+    private int findLargestApprovedAmount(DecisionPolicy policy, int creditModifier, int topAmount, int period) {
+        if (topAmount < policy.getMinimumLoanAmount()) {
+            return -1;
+        }
+        int step = policy.getLoanAmountStep();
+        int low = 0;
+        int high = (topAmount - policy.getMinimumLoanAmount()) / step;
+
+        if (!isApproved(policy, creditModifier, topAmount - high * step, period)) {
+            return -1;
+        }
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (isApproved(policy, creditModifier, topAmount - middle * step, period)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return topAmount - low * step;
+    }
 
-                if (creditScore >= 0.1) {
-                    return new Decision(currentAmount.intValue(), period, null);
+    /**
+     * Binary searches the periods requestedPeriod, requestedPeriod + step, ... for the shortest one approving the
+     * amount. The last of the periodSteps + 1 periods must approve the amount.
+     * @param policy Decision policy to apply
+     * @param creditModifier Credit modifier of the customer
+     * @param loanAmount Loan amount to score
+     * @param requestedPeriod Shortest period to consider
+     * @param periodSteps Number of loan period steps to the longest period to consider
+     * @return The shortest approved period
+     */
+    private int findShortestApprovedPeriod(DecisionPolicy policy, int creditModifier, int loanAmount,
+                                           int requestedPeriod, int periodSteps) {
+        int low = 0;
+        int high = periodSteps;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int period = requestedPeriod + middle * policy.getLoanPeriodStep();
+            if (isApproved(policy, creditModifier, loanAmount, period)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return requestedPeriod + low * policy.getLoanPeriodStep();
+    }
+
+    private boolean isApproved(DecisionPolicy policy, int creditModifier, int loanAmount, int loanPeriod) {
+        return creditScoreCalculator.calculateCreditScore(creditModifier, loanAmount, loanPeriod)
+                >= policy.getMinimumCreditScore();
+    }
+
+    /**
+     * Scores the amounts loanAmount, loanAmount - step, ... down to the minimum loan amount with the periods
+     * requestedPeriod, requestedPeriod + step, ... up to the maximum loan period in one go, then picks the largest
+     * approved amount with the shortest period approving it.
+     */
+    private Decision scanValidLoanAmount(DecisionPolicy policy, int creditModifier, long loanAmount,
+                                         int requestedPeriod) {
+        int[] loanAmounts = steps((int) loanAmount, policy.getMinimumLoanAmount(), -policy.getLoanAmountStep());
+        int[] loanPeriods = steps(requestedPeriod, policy.getMaximumLoanPeriod(), policy.getLoanPeriodStep());
+        long[] mask = creditScoreCalculator.calculateApprovalMask(creditModifier, loanAmounts, loanPeriods,
+                policy.getMinimumCreditScore());
+
+        int amountIndex = ApprovalMask.firstApprovedAmountOfAnyPeriod(mask, loanAmounts.length, loanPeriods.length);
+        if (amountIndex >= 0) {
+            for (int periodIndex = 0; periodIndex < loanPeriods.length; periodIndex++) {
+                if (ApprovalMask.isApproved(mask, loanAmounts.length, periodIndex, amountIndex)) {
+                    return new Decision(loanAmounts[amountIndex], loanPeriods[periodIndex], null);
                 }
-                currentAmount -= 100;
             }
+        }
+        return new Decision(0, 0, "No valid loan found after adjusting amount and period.");
+    }
+
+    /**
+     * Scores the whole grid of loan amounts and the periods from the maximum loan period down to the requested one
+     * in one go, then picks the largest approved amount of the longest period approving any.
+     */
+    private Decision scanMaximumLoanAmount(DecisionPolicy policy, int requestedLoanPeriod, int creditModifier) {
+        int[] loanAmounts = policy.getDescendingLoanAmounts();
+        int[] loanPeriods = steps(policy.getMaximumLoanPeriod(), requestedLoanPeriod, -policy.getLoanPeriodStep());
+        long[] mask = creditScoreCalculator.calculateApprovalMask(creditModifier, loanAmounts, loanPeriods,
+                policy.getMinimumCreditScore());
 
+        for (int periodIndex = 0; periodIndex < loanPeriods.length; periodIndex++) {
+            int amountIndex = ApprovalMask.firstApprovedAmount(mask, loanAmounts.length, periodIndex);
+            if (amountIndex >= 0) {
+                return new Decision(loanAmounts[amountIndex], loanPeriods[periodIndex], null);
+            }
         }
         return new Decision(0, 0, "No valid maximum loan found.");
     }
 
+    /**
+     * @return The values first, first + step, ... up to and including last, empty if first is already past last
+     */
+    private static int[] steps(int first, int last, int step) {
+        int count = (last - first) * Integer.signum(step) < 0 ? 0 : (last - first) / step + 1;
+        int[] values = new int[count];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = first + i * step;
+        }
+        return values;
+    }
 }
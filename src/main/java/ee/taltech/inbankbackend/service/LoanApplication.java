@@ -0,0 +1,32 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A loan request on its way through the DecisionRules, together with what the rules found out about it.
+ */
+@Getter
+public class LoanApplication {
+    private final DecisionPolicy policy;
+    private final Country country;
+    private final String personalCode;
+    private final Long loanAmount;
+    private final int loanPeriod;
+
+    /**
+     * The customer's profile, set by the CustomerProfileRule once the customer is found eligible.
+     */
+    @Setter
+    private CustomerProfile customerProfile;
+
+    public LoanApplication(DecisionPolicy policy, Country country, String personalCode, Long loanAmount,
+                           int loanPeriod) {
+        this.policy = policy;
+        this.country = country;
+        this.personalCode = personalCode;
+        this.loanAmount = loanAmount;
+        this.loanPeriod = loanPeriod;
+    }
+}
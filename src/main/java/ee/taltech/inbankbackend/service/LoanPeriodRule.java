@@ -0,0 +1,27 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects loan periods outside the limits of the decision policy.
+ */
+@Component
+public class LoanPeriodRule implements DecisionRule {
+    @Override
+    public String getName() {
+        return "loan_period";
+    }
+
+    @Override
+    public int getCost() {
+        return 1;
+    }
+
+    @Override
+    public void check(LoanApplication application) throws InvalidLoanPeriodException {
+        if (!application.getPolicy().isLoanPeriodValid(application.getLoanPeriod())) {
+            throw InvalidLoanPeriodException.INVALID_LOAN_AMOUNT_OR_PERIOD;
+        }
+    }
+}
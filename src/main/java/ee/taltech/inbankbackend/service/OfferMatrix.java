@@ -0,0 +1,15 @@
+package ee.taltech.inbankbackend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Holds the maximum approved loan amount of every loan period of the decision policy the matrix was calculated with.
+ * maxLoanAmounts[i] is the amount approved with a loan period of firstLoanPeriod + i months, 0 if none is.
+ */
+@Getter
+@AllArgsConstructor
+public class OfferMatrix {
+    private final int firstLoanPeriod;
+    private final int[] maxLoanAmounts;
+}
@@ -0,0 +1,33 @@
+package ee.taltech.inbankbackend.service;
+
+/**
+ * Parses and checksums the personal ID codes of one country in place, without allocating, into the layout of
+ * the {@link PersonalCodeParser}.
+ */
+public interface PersonalCodeFormat {
+    /**
+     * @return Country whose personal ID codes this format reads
+     */
+    Country getCountry();
+
+    /**
+     * Decodes the personal ID code. The checksum is decoded but not verified.
+     * @param personalCode Customer's personal ID code, not null
+     * @return The packed personal ID code, or {@link PersonalCodeParser#INVALID} if the code is malformed
+     */
+    long parse(CharSequence personalCode);
+
+    /**
+     * @param personalCode Personal ID code packed by {@link #parse(CharSequence)}, not
+     * {@link PersonalCodeParser#INVALID}
+     * @return True if the checksum of the personal ID code is correct
+     */
+    boolean hasValidChecksum(long personalCode);
+
+    /**
+     * @param personalCode Personal ID code packed by {@link #parse(CharSequence)}, not
+     * {@link PersonalCodeParser#INVALID}
+     * @return The number from 0 to 99 the customer segment is found by
+     */
+    int segmentEnding(long personalCode);
+}
@@ -0,0 +1,145 @@
+package ee.taltech.inbankbackend.service;
+
+import java.time.Year;
+
+/**
+ * Parses personal ID codes into a single packed long, so the code is decoded once per request without allocating and
+ * the validators read its parts with plain arithmetic. Every country's {@link PersonalCodeFormat} packs its codes
+ * into the same layout, so the validators work for all countries alike.
+ * Layout of the packed value:
+ * bits 0-4 hold the checksum, bits 5-14 the serial number, bits 15-39 the date of birth as yyyymmdd,
+ * bits 40-43 the digit or sign the country encodes the century with and bits 44-47 the country.
+ */
+public final class PersonalCodeParser {
+    /**
+     * Returned for codes that are not in the format of their country or have an impossible date of birth.
+     */
+    public static final long INVALID = -1L;
+
+    private static final Country[] COUNTRIES = Country.values();
+    private static final PersonalCodeFormat[] FORMATS = new PersonalCodeFormat[COUNTRIES.length];
+
+    static {
+        for (Country country : COUNTRIES) {
+            FORMATS[country.ordinal()] = switch (country) {
+                case EE, LT -> new EstonianPersonalCodeFormat(country);
+                case LV -> new LatvianPersonalCodeFormat();
+                case FI -> new FinnishPersonalCodeFormat();
+            };
+        }
+    }
+
+    private PersonalCodeParser() {
+    }
+
+    /**
+     * Decodes an Estonian personal ID code, see {@link #parse(Country, CharSequence)}.
+     */
+    public static long parse(CharSequence personalCode) {
+        return parse(Country.EE, personalCode);
+    }
+
+    /**
+     * Decodes the personal ID code in the format of the country. The checksum is decoded but not verified,
+     * see {@link #hasValidChecksum(long)}.
+     * @param country Country that issued the personal ID code
+     * @param personalCode Customer's personal ID code
+     * @return The packed personal ID code, or {@link #INVALID} if the code is malformed
+     */
+    public static long parse(Country country, CharSequence personalCode) {
+        if (personalCode == null) {
+            return INVALID;
+        }
+        return FORMATS[country.ordinal()].parse(personalCode);
+    }
+
+    /**
+     * Verifies the checksum with the algorithm of the country that issued the code.
+     * @param personalCode Packed personal ID code
+     * @return True if the code is not {@link #INVALID} and its checksum is correct
+     */
+    public static boolean hasValidChecksum(long personalCode) {
+        if (personalCode == INVALID) {
+            return false;
+        }
+        return FORMATS[(int) (personalCode >>> 44) & 0xF].hasValidChecksum(personalCode);
+    }
+
+    /**
+     * Packs the parts of a personal ID code, used by the {@link PersonalCodeFormat}s.
+     * @param birthDate Date of birth in the format yyyymmdd
+     * @param serial Serial number, at most 1023
+     * @param checksum Checksum digit or the index of the check character, at most 31
+     */
+    static long pack(Country country, int firstDigit, int birthDate, int serial, int checksum) {
+        return (long) country.ordinal() << 44 | (long) firstDigit << 40 | (long) birthDate << 15
+                | (long) serial << 5 | checksum;
+    }
+
+    /**
+     * @param personalCode Packed personal ID code, not {@link #INVALID}
+     * @return Country that issued the personal ID code
+     */
+    public static Country country(long personalCode) {
+        return COUNTRIES[(int) (personalCode >>> 44) & 0xF];
+    }
+
+    public static int firstDigit(long personalCode) {
+        return (int) (personalCode >>> 40) & 0xF;
+    }
+
+    /**
+     * @param personalCode Packed personal ID code
+     * @return Date of birth in the format yyyymmdd
+     */
+    public static int birthDate(long personalCode) {
+        return (int) (personalCode >>> 15) & 0x1FFFFFF;
+    }
+
+    public static int serial(long personalCode) {
+        return (int) (personalCode >>> 5) & 0x3FF;
+    }
+
+    public static int checksum(long personalCode) {
+        return (int) personalCode & 0x1F;
+    }
+
+    /**
+     * Finds the number the customer segment is looked up with in the format of the country that issued the code:
+     * the last two digits of Estonian, Latvian and Lithuanian codes and of the individual number of Finnish ones.
+     * @param personalCode Packed personal ID code, not {@link #INVALID}
+     * @return The segment ending, from 0 to 99
+     */
+    public static int segmentEnding(long personalCode) {
+        return FORMATS[(int) (personalCode >>> 44) & 0xF].segmentEnding(personalCode);
+    }
+
+    static int digit(CharSequence personalCode, int index) {
+        return personalCode.charAt(index) - '0';
+    }
+
+    /**
+     * @return True if the characters from start (inclusive) to end (exclusive) are all decimal digits
+     */
+    static boolean isDigits(CharSequence personalCode, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = personalCode.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isValidDate(int year, int month, int day) {
+        return month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+}
@@ -3,5 +3,14 @@ package ee.taltech.inbankbackend.service;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
 
 public interface PersonalCodeValidator {
-    boolean isValid(String personalCode) throws InvalidPersonalCodeException;
+    /**
+     * @param personalCode Personal ID code packed by {@link PersonalCodeParser}
+     * @return True if the personal ID code is valid
+     * @throws InvalidPersonalCodeException If the personal ID code is invalid
+     */
+    boolean isValid(long personalCode) throws InvalidPersonalCodeException;
+
+    default boolean isValid(String personalCode) throws InvalidPersonalCodeException {
+        return isValid(PersonalCodeParser.parse(personalCode));
+    }
 }
@@ -0,0 +1,116 @@
+package ee.taltech.inbankbackend.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.netty.channel.ChannelOption;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fetches credit modifiers from the credit registry with GET {baseUrl}/credit-modifiers/{country}/{personalCode},
+ * which answers with {"creditModifier": 100}.
+ * Requests are sent without blocking over a bounded pool of kept-alive connections. Concurrent lookups of the same
+ * customer share a single registry request, so a burst of requests from one customer costs one round trip.
+ * The client runs on its own event loops, so callers on the server's event loops can wait for the result.
+ */
+public class RegistryCreditModifierProvider implements CreditModifierProvider, AutoCloseable {
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+    private final WebClient webClient;
+    private final ConcurrentMap<LookupKey, CompletableFuture<Integer>> inFlightLookups = new ConcurrentHashMap<>();
+
+    /**
+     * @param webClientBuilder Builder of the underlying WebClient
+     * @param baseUrl Base URL of the credit registry
+     * @param maxConnections Maximum number of open connections to the credit registry
+     * @param connectTimeout Time allowed for opening a connection, or for waiting on a free pooled connection
+     * @param responseTimeout Time allowed for the credit registry to answer
+     */
+    public RegistryCreditModifierProvider(WebClient.Builder webClientBuilder, String baseUrl, int maxConnections,
+                                          Duration connectTimeout, Duration responseTimeout) {
+        connectionProvider = ConnectionProvider.builder("credit-registry")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectTimeout)
+                .build();
+        loopResources = LoopResources.create("credit-registry");
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Joins the lookup of the same customer already in flight, or starts a new one.
+     *
+     * @param country Country that issued the personal ID code
+     * @param personalCode Valid personal ID code of the customer
+     * @return The credit modifier from the registry, completed exceptionally if the registry failed or timed out
+     */
+    @Override
+    public CompletionStage<Integer> getCreditModifier(Country country, String personalCode) {
+        LookupKey lookupKey = new LookupKey(country, personalCode);
+        CompletableFuture<Integer> newLookup = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Integer> lookup = inFlightLookups.get(lookupKey);
+            if (lookup != null && !lookup.isDone()) {
+                return lookup.minimalCompletionStage();
+            }
+            // A finished lookup may not have been removed yet, it is replaced like a missing one
+            if (lookup == null ? inFlightLookups.putIfAbsent(lookupKey, newLookup) == null
+                    : inFlightLookups.replace(lookupKey, lookup, newLookup)) {
+                break;
+            }
+        }
+
+        newLookup.whenComplete((creditModifier, error) -> inFlightLookups.remove(lookupKey, newLookup));
+        webClient.get()
+                .uri("/credit-modifiers/{country}/{personalCode}", country, personalCode)
+                .retrieve()
+                .bodyToMono(CreditModifierResponse.class)
+                .subscribe(response -> newLookup.complete(response.creditModifier),
+                        newLookup::completeExceptionally,
+                        () -> newLookup.completeExceptionally(
+                                new IllegalStateException("Empty response from the credit registry")));
+        return newLookup.minimalCompletionStage();
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+
+    /**
+     * Personal ID codes of different countries may be equal, e.g. Estonian and Lithuanian ones.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class LookupKey {
+        private final Country country;
+        private final String personalCode;
+    }
+
+    private static final class CreditModifierResponse {
+        private final int creditModifier;
+
+        @JsonCreator
+        private CreditModifierResponse(@JsonProperty("creditModifier") int creditModifier) {
+            this.creditModifier = creditModifier;
+        }
+    }
+}
@@ -1,56 +1,110 @@
 package ee.taltech.inbankbackend.service;
 
-import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
 import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.Period;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Verifies the customer's age against cut-off birth dates calculated once a day and whenever the decision policy
+ * changes: customers born after the first cut-off are younger than the policy's minimum age and customers born on or
+ * before the second one are older than its maximum age. Birth dates are compared as yyyymmdd ints, so verifying an
+ * age is two int comparisons. Every policy has its own cut-offs, built by a preparer and published together with the
+ * policy. They are immutable and replaced as a whole by the first request after midnight, which only replaces the
+ * cut-offs of the policy it has read.
+ */
 @Service
 public class RegularAgeValidator implements AgeValidator {
+    private final Clock clock;
+    private final DecisionPolicyHolder.PolicyArtifact<AtomicReference<Cutoffs>> cutoffs;
+
+    @Autowired
+    public RegularAgeValidator(Clock clock, DecisionPolicyHolder policyHolder) {
+        this.clock = clock;
+        this.cutoffs = policyHolder.onUpdate(
+                policy -> new AtomicReference<>(new Cutoffs(LocalDate.now(clock), clock, policy)));
+    }
 
     /**
-     * Verifies if a customer's age is eligible for a loan. If a customer is under the age of 18, they are underage
-     * If a customer is over the age of 78 - 4, they are overage and do not qualify for a loan.
-     * @param personalCode Customer's personal ID code
+     * Verifies if a customer's age is eligible for a loan. If a customer is under the policy's minimum age, they are
+     * underage. If a customer is over its maximum age, they are overage and do not qualify for a loan.
+     * @param personalCode Customer's personal ID code, packed by the PersonalCodeParser
      * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
      */
     @Override
-    public void verifyAgeEligibility(String personalCode) throws NoValidLoanException {
-        int age = getCustomerAge(personalCode);
-        int maxAge = 78 - 4; // Maximum age to be eligible for a loan
+    public void verifyAgeEligibility(long personalCode) throws NoValidLoanException {
+        Cutoffs current = getCutoffs();
+        int birthDate = PersonalCodeParser.birthDate(personalCode);
 
-        if (age < 18 )throw new NoValidLoanException("AGE_RESRTRICTION:UNDERAGE");
-        if (age > maxAge) throw new NoValidLoanException("AGE_RESRTRICTION:OVERAGE");
+        if (birthDate > current.youngestEligibleBirthDate) throw NoValidLoanException.UNDERAGE;
+        if (birthDate <= current.youngestOverageBirthDate) throw NoValidLoanException.OVERAGE;
     }
 
     /**
-     * Calculates a customer's age, given an input of a customer's personalCode.
-     * First digit of personal code represents the century the customer is born in
-     * Second to seventh digit is the persons date of birth in the format YYMMDD.
-     * @param personalCode Customer's personal ID code
-     * @return Customer's age in years
+     * Underage customers become eligible on the birthday of the minimum age, eligible customers become overage on
+     * the birthday after the maximum age and overage customers stay overage.
+     * @param personalCode Customer's personal ID code, packed by the PersonalCodeParser
+     * @return The birthday on which the customer's eligibility changes, or null for overage customers
      */
-    private int getCustomerAge(String personalCode) {
-        String birthDateString = personalCode.substring(1, 7);
+    @Override
+    public LocalDate getEligibilityChangeDate(long personalCode) {
+        Cutoffs current = getCutoffs();
+        int birthDate = PersonalCodeParser.birthDate(personalCode);
 
-        int year = Integer.parseInt(birthDateString.substring(0, 2));
-        int month = Integer.parseInt(birthDateString.substring(2, 4));
-        int day = Integer.parseInt(birthDateString.substring(4, 6));
+        if (birthDate <= current.youngestOverageBirthDate) return null;
+        return getBirthdayOfAge(toLocalDate(birthDate),
+                birthDate > current.youngestEligibleBirthDate
+                        ? current.policy.getMinimumAge() : current.policy.getMaximumAge() + 1);
+    }
 
-        // Determining the century based on the first digit of the ID code
-        char firstDigit = personalCode.charAt(0);
-        int century = switch (personalCode.charAt(0)) {
-            case '1', '2' -> 1800;
-            case '3', '4' -> 1900;
-            case '5', '6' -> 2000;
-            default -> throw new IllegalArgumentException("Invalid personal code format");
-        };
+    /**
+     * The cut-offs are moved to the new day by the first call after midnight in the clock's time zone.
+     */
+    private Cutoffs getCutoffs() {
+        AtomicReference<Cutoffs> policyCutoffs = cutoffs.get();
+        Cutoffs current = policyCutoffs.get();
+        if (clock.millis() >= current.nextDayStart) {
+            Cutoffs nextDay = new Cutoffs(LocalDate.now(clock), clock, current.policy);
+            current = policyCutoffs.compareAndSet(current, nextDay) ? nextDay : policyCutoffs.get();
+        }
+        return current;
+    }
 
+    private static LocalDate getBirthdayOfAge(LocalDate birthDate, int age) {
+        LocalDate birthday = birthDate.plusYears(age);
 
-        LocalDate birthDate = LocalDate.of(century + year, month, day);
+        // Customers born on a leap day only turn a year older on the 1st of March of common years
+        return birthday.getDayOfMonth() == birthDate.getDayOfMonth() ? birthday : birthday.plusDays(1);
+    }
+
+    private static LocalDate toLocalDate(int date) {
+        return LocalDate.of(date / 10000, date / 100 % 100, date % 100);
+    }
+
+    private static int toInt(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * A customer is at least N years old if they were born on or before the same day N years ago. Going back from
+     * the 29th of February lands on the 28th, so customers born on a leap day turn N on the 1st of March.
+     */
+    private static final class Cutoffs {
+        private final DecisionPolicy policy;
+        private final int youngestEligibleBirthDate;
+        private final int youngestOverageBirthDate;
+        private final long nextDayStart;
 
-        return Period.between(birthDate, LocalDate.now()).getYears();
+        private Cutoffs(LocalDate today, Clock clock, DecisionPolicy policy) {
+            this.policy = policy;
+            youngestEligibleBirthDate = toInt(today.minusYears(policy.getMinimumAge()));
+            youngestOverageBirthDate = toInt(today.minusYears(policy.getMaximumAge() + 1));
+            nextDayStart = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        }
     }
 }
@@ -16,7 +16,32 @@ public class RegularCreditScoreCalculator implements CreditScoreCalculator {
      * @return Customer's credit score.
      */
     @Override
-    public double calculateCreditScore(int creditModifier, Long loanAmount, int loanPeriod) {
+    public double calculateCreditScore(int creditModifier, long loanAmount, int loanPeriod) {
         return (((double) creditModifier / loanAmount) * loanPeriod) /10;
     }
+
+    /**
+     * Same algorithm as {@link #calculateCreditScore(int, long, int)}, in a loop simple enough for the JIT compiler
+     * to vectorise.
+     * @param creditModifier Credit modifier of the customer
+     * @param loanAmounts Loan amounts to score
+     * @param loanPeriod Loan period to score the amounts with
+     * @param creditScores Receives the credit score of loanAmounts[i] at index i
+     */
+    @Override
+    public void calculateCreditScores(int creditModifier, int[] loanAmounts, int loanPeriod, double[] creditScores) {
+        double modifier = creditModifier;
+        for (int i = 0; i < loanAmounts.length; i++) {
+            creditScores[i] = ((modifier / loanAmounts[i]) * loanPeriod) / 10;
+        }
+    }
+
+    /**
+     * The score grows with the loan period and shrinks with the loan amount, for any non-negative credit modifier.
+     * @return Always true
+     */
+    @Override
+    public boolean isMonotonic() {
+        return true;
+    }
 }
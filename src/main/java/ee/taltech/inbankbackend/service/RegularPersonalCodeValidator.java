@@ -1,17 +1,18 @@
 package ee.taltech.inbankbackend.service;
 
-import com.github.vladislavgoltjajev.personalcode.locale.estonia.EstonianPersonalCodeValidator;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Verifies the checksum of the personal ID code with the algorithm of the country the code was issued by.
+ */
 @Service
 public class RegularPersonalCodeValidator implements PersonalCodeValidator {
-    private final EstonianPersonalCodeValidator estonianPersonalCodeValidator = new EstonianPersonalCodeValidator();
 
     @Override
-    public boolean isValid(String personalCode) throws InvalidPersonalCodeException {
-        if (personalCode == null || personalCode.isEmpty() || !estonianPersonalCodeValidator.isValid(personalCode)) {
-            throw new InvalidPersonalCodeException("Invalid personal ID code!");
+    public boolean isValid(long personalCode) throws InvalidPersonalCodeException {
+        if (!PersonalCodeParser.hasValidChecksum(personalCode)) {
+            throw InvalidPersonalCodeException.INVALID_PERSONAL_CODE;
         }
         return true;
     }
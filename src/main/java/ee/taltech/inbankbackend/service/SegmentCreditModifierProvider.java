@@ -0,0 +1,39 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Derives the credit modifier from the customer segment encoded in the segment ending of the personal ID code,
+ * according to the segments of the decision policy in effect.
+ * Used when no credit registry is configured.
+ */
+public class SegmentCreditModifierProvider implements CreditModifierProvider {
+    private final DecisionPolicyHolder.PolicyArtifact<SegmentResolver> segmentResolver;
+
+    /**
+     * The segment resolver of a new policy is built before the policy is published and published together with it.
+     */
+    public SegmentCreditModifierProvider(DecisionPolicyHolder policyHolder) {
+        segmentResolver = policyHolder.onUpdate(SegmentResolver::new);
+    }
+
+    /**
+     * Calculates the credit modifier of the customer to according to the last two digits of their ID code, or of
+     * the individual number of Finnish codes.
+     * With the default policy:
+     * Debt - 00...74
+     * Segment 1 - 75...84
+     * Segment 2 - 85...94
+     * Segment 3 - 95...99
+     *
+     * @param country Country that issued the personal ID code
+     * @param personalCode ID code of the customer that made the request.
+     * @return An already completed stage holding the credit modifier of the customer's segment
+     */
+    @Override
+    public CompletionStage<Integer> getCreditModifier(Country country, String personalCode) {
+        return segmentResolver.get().getCompletedCreditModifier(country, personalCode);
+    }
+}
@@ -0,0 +1,77 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Resolves the customer segment from the segment ending of the personal ID code, see
+ * {@link PersonalCodeParser#segmentEnding(long)}, with a table of the credit modifiers of all 100 endings, built from
+ * the segment boundaries of a decision policy. Resolving a segment is an array load, however many segments the policy
+ * has.
+ */
+public final class SegmentResolver {
+    private static final int ENDINGS = 100;
+
+    @Getter
+    private final DecisionPolicy policy;
+    private final int[] creditModifiers = new int[ENDINGS];
+    private final List<CompletionStage<Integer>> completedCreditModifiers = new ArrayList<>(ENDINGS);
+
+    /**
+     * @param policy Decision policy whose segments to resolve
+     */
+    public SegmentResolver(DecisionPolicy policy) {
+        this.policy = policy;
+
+        List<DecisionPolicy.Segment> segments = policy.getSegments();
+        for (int segment = 0; segment < segments.size(); segment++) {
+            int from = segments.get(segment).getFrom();
+            int to = segment + 1 < segments.size() ? segments.get(segment + 1).getFrom() : ENDINGS;
+            CompletionStage<Integer> completed =
+                    CompletableFuture.completedStage(segments.get(segment).getCreditModifier());
+            for (int ending = from; ending < to; ending++) {
+                creditModifiers[ending] = segments.get(segment).getCreditModifier();
+                completedCreditModifiers.add(completed);
+            }
+        }
+    }
+
+    /**
+     * @param segmentEnding Segment ending of the customer's personal ID code, from 0 to 99
+     * @return Credit modifier of the segment the customer belongs to
+     */
+    public int getCreditModifier(int segmentEnding) {
+        return creditModifiers[segmentEnding];
+    }
+
+    /**
+     * @param country Country that issued the personal ID code
+     * @param personalCode Customer's personal ID code
+     * @return Credit modifier of the segment the customer belongs to
+     * @throws IllegalArgumentException If the personal ID code is not in the format of the country
+     */
+    public int getCreditModifier(Country country, CharSequence personalCode) {
+        return creditModifiers[segmentEnding(country, personalCode)];
+    }
+
+    /**
+     * Same as {@link #getCreditModifier(Country, CharSequence)}, as a completed stage shared by all customers of the
+     * segment, so no future is created per call. The stage is read-only, callers cannot complete it again.
+     */
+    public CompletionStage<Integer> getCompletedCreditModifier(Country country, CharSequence personalCode) {
+        return completedCreditModifiers.get(segmentEnding(country, personalCode));
+    }
+
+    private static int segmentEnding(Country country, CharSequence personalCode) {
+        long parsedCode = PersonalCodeParser.parse(country, personalCode);
+        if (parsedCode == PersonalCodeParser.INVALID) {
+            throw new IllegalArgumentException("Personal code is not in the format of " + country);
+        }
+        return PersonalCodeParser.segmentEnding(parsedCode);
+    }
+}
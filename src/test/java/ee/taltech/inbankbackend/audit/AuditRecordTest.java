@@ -0,0 +1,27 @@
+package ee.taltech.inbankbackend.audit;
+
+import ee.taltech.inbankbackend.service.Country;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRecordTest {
+
+    @Test
+    void testLongStringIsTruncatedAfterLastCompleteCharacter() {
+        // 2 + 3 * 11000 bytes, Short.MAX_VALUE falls into the middle of a three byte character
+        String errorMessage = "ab" + "\u20ac".repeat(11000);
+        AuditRecord record = new AuditRecord(1, 1, Country.EE, "49002010976", 4000, 24, null, null, errorMessage, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(record.maximumEncodedLength());
+
+        record.writeTo(buffer);
+        AuditRecord read = AuditRecord.readFrom(buffer.flip());
+
+        assertEquals("ab" + "\u20ac".repeat(10921), read.getErrorMessage());
+        assertEquals(-1, read.getErrorMessage().indexOf('\uFFFD'));
+        assertEquals("49002010976", read.getPersonalCode());
+        assertFalse(buffer.hasRemaining());
+    }
+}
@@ -0,0 +1,67 @@
+package ee.taltech.inbankbackend.audit;
+
+import ee.taltech.inbankbackend.service.Country;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void testFullBufferRejectsRecords() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(3);
+
+        assertEquals(4, ringBuffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.offer(record(i)));
+        }
+        assertFalse(ringBuffer.offer(record(4)));
+        assertEquals(0, ringBuffer.poll().getLoanPeriod());
+        assertTrue(ringBuffer.offer(record(4)));
+
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ringBuffer.poll().getLoanPeriod());
+        }
+        assertNull(ringBuffer.poll());
+    }
+
+    @Test
+    void testConcurrentProducersLoseNoRecords() throws InterruptedException {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(1024);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int producer = 0; producer < 4; producer++) {
+            int first = producer * 10000;
+            producers.execute(() -> {
+                for (int i = first; i < first + 10000; i++) {
+                    AuditRecord record = record(i);
+                    while (!ringBuffer.offer(record)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        Set<Integer> received = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < 40000 && System.nanoTime() < deadline) {
+            AuditRecord record = ringBuffer.poll();
+            if (record != null) {
+                assertTrue(received.add(record.getLoanPeriod()));
+            }
+        }
+        producers.shutdown();
+
+        assertEquals(40000, received.size());
+        assertNull(ringBuffer.poll());
+    }
+
+    private static AuditRecord record(int loanPeriod) {
+        return new AuditRecord(0, 0, Country.EE, "49002010976", 4000, loanPeriod, null, null, null, 0);
+    }
+}
@@ -0,0 +1,235 @@
+package ee.taltech.inbankbackend.audit;
+
+import ee.taltech.inbankbackend.service.Country;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileAuditJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testRecordsAreWrittenAndReadBack() throws IOException {
+        Path file = directory.resolve("decisions.journal");
+        try (FileAuditJournal journal = open(file)) {
+            journal.record(new AuditRecord(1700000000000L, 3, Country.EE, "49002010976", 4000, 24, 4000, 24, null,
+                    1500));
+            journal.record(new AuditRecord(1700000000001L, 3, Country.LV, "161175-19997", 4000, 24, null, null,
+                    "No valid loan found! You are in debt.", 900));
+        }
+
+        List<AuditRecord> records = readAll(file);
+        assertEquals(2, records.size());
+        AuditRecord approved = records.get(0);
+        assertEquals(1700000000000L, approved.getTimestamp());
+        assertEquals(3, approved.getPolicyVersion());
+        assertEquals(Country.EE, approved.getCountry());
+        assertEquals("49002010976", approved.getPersonalCode());
+        assertEquals(4000, approved.getApprovedLoanAmount());
+        assertEquals(24, approved.getApprovedLoanPeriod());
+        assertEquals(1500, approved.getDurationNanos());
+        assertTrue(approved.isApproved());
+        AuditRecord rejected = records.get(1);
+        assertEquals(Country.LV, rejected.getCountry());
+        assertEquals("161175-19997", rejected.getPersonalCode());
+        assertNull(rejected.getApprovedLoanAmount());
+        assertEquals("No valid loan found! You are in debt.", rejected.getErrorMessage());
+    }
+
+    @Test
+    void testReopenedJournalAppendsAfterLastCompleteRecord() throws IOException {
+        Path file = directory.resolve("decisions.journal");
+        try (FileAuditJournal journal = open(file)) {
+            for (int i = 0; i < 1000; i++) {
+                journal.record(new AuditRecord(i, 1, Country.EE, "49002010976", 4000, 12 + i % 37, null, null, null,
+                        0));
+            }
+        }
+        // A crash in the middle of a write leaves part of a record behind
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        assertEquals(999, readAll(file).size());
+
+        try (FileAuditJournal journal = open(file)) {
+            journal.record(new AuditRecord(1000, 2, Country.EE, "49002010987", 5000, 36, 5000, 36, null, 0));
+        }
+
+        List<AuditRecord> records = readAll(file);
+        assertEquals(1000, records.size());
+        assertEquals(998, records.get(998).getTimestamp());
+        assertEquals(2, records.get(999).getPolicyVersion());
+    }
+
+    @Test
+    void testRecordTornBeforeZeroBytesIsTruncated() throws IOException {
+        Path file = directory.resolve("decisions.journal");
+        writeRecords(file, 10);
+        // The file system had allocated zeroed blocks past the record that was being written
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+            channel.write(ByteBuffer.allocate(4096), channel.size());
+        }
+        assertEquals(9, readAll(file).size());
+
+        try (FileAuditJournal journal = open(file)) {
+            journal.record(new AuditRecord(10, 2, Country.EE, "49002010987", 5000, 36, 5000, 36, null, 0));
+        }
+
+        List<AuditRecord> records = readAll(file);
+        assertEquals(10, records.size());
+        assertEquals(2, records.get(9).getPolicyVersion());
+    }
+
+    @Test
+    void testCorruptedJournalIsMovedAsideWithoutLosingLaterRecords() throws IOException {
+        Path file = directory.resolve("decisions.journal");
+        writeRecords(file, 1000);
+        long size = Files.size(file);
+        int recordLength = (int) (size - FileAuditJournal.FILE_HEADER_LENGTH) / 1000;
+        // A flipped bit in the timestamp of the 501st record
+        long corruptedOffset = FileAuditJournal.FILE_HEADER_LENGTH + 500L * recordLength
+                + FileAuditJournal.RECORD_HEADER_LENGTH + Long.BYTES - 1;
+        flipBit(file, corruptedOffset);
+
+        List<AuditRecord> readBeforeCorruption = new ArrayList<>();
+        assertThrows(AuditJournalReader.CorruptedJournalException.class,
+                () -> AuditJournalReader.read(file, readBeforeCorruption::add));
+        assertEquals(500, readBeforeCorruption.size());
+
+        try (FileAuditJournal journal = open(file)) {
+            journal.record(new AuditRecord(1000, 2, Country.EE, "49002010987", 5000, 36, 5000, 36, null, 0));
+        }
+
+        assertEquals(1, readAll(file).size());
+        List<Path> movedAside;
+        try (Stream<Path> files = Files.list(directory)) {
+            movedAside = files.filter(path -> path.getFileName().toString().startsWith("decisions.journal.corrupted-"))
+                    .toList();
+        }
+        assertEquals(1, movedAside.size());
+        assertEquals(size, Files.size(movedAside.get(0)));
+        flipBit(movedAside.get(0), corruptedOffset);
+        List<AuditRecord> records = readAll(movedAside.get(0));
+        assertEquals(1000, records.size());
+        assertEquals(999, records.get(999).getTimestamp());
+    }
+
+    @Test
+    void testOtherFilesAreNotOpened() throws IOException {
+        Path file = Files.writeString(directory.resolve("decisions.journal"), "not a journal");
+
+        assertThrows(IOException.class, () -> open(file));
+    }
+
+    @Test
+    void testVersion1JournalsAreReadButNotAppendedTo() throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(128)
+                .putLong(1700000000000L).putLong(1).putLong(1500).putLong(4000)
+                .putInt(24).putInt(4000).putInt(24)
+                .putShort((short) 11).put("49002010976".getBytes(StandardCharsets.US_ASCII))
+                .putShort((short) -1)
+                .flip();
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer journal = ByteBuffer.allocate(256)
+                .put(FileAuditJournal.MAGIC).putInt(1)
+                .putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload)
+                .flip();
+        Path file = Files.write(directory.resolve("decisions.journal"),
+                Arrays.copyOf(journal.array(), journal.limit()));
+
+        List<AuditRecord> records = readAll(file);
+        assertEquals(1, records.size());
+        assertEquals(Country.EE, records.get(0).getCountry());
+        assertEquals("49002010976", records.get(0).getPersonalCode());
+        assertEquals(4000, records.get(0).getApprovedLoanAmount());
+        assertThrows(IOException.class, () -> open(file));
+    }
+
+    @Test
+    void testUnencodableRecordIsDroppedAndWriterKeepsGoing() throws IOException {
+        Path file = directory.resolve("decisions.journal");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (FileAuditJournal journal = open(file, meterRegistry)) {
+            journal.record(new AuditRecord(1000, 2, null, "49002010987", 5000, 36, 5000, 36, null, 0));
+            journal.record(new AuditRecord(1001, 2, Country.EE, "49002010987", 5000, 36, 5000, 36, null, 0));
+        }
+
+        List<AuditRecord> records = readAll(file);
+        assertEquals(1, records.size());
+        assertEquals(1001, records.get(0).getTimestamp());
+        assertEquals(1, meterRegistry.get("decision.audit.dropped").tag("reason", "write_error").counter().count());
+    }
+
+    @Test
+    void testBlockedProducersDropRecordsOnceWriterDies() throws IOException {
+        Path file = directory.resolve("decisions.journal");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (FileAuditJournal journal = open(file, meterRegistry)) {
+            journal.record(new AuditRecord(0, 1, Country.EE, "49002010976", 4000, 12, null, null, null, 0) {
+                @Override
+                public void writeTo(ByteBuffer buffer) {
+                    throw new AssertionError("Simulated writer failure");
+                }
+            });
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < 1000; i++) {
+                    journal.record(new AuditRecord(i, 1, Country.EE, "49002010976", 4000, 12, null, null, null, 0));
+                }
+            });
+            assertTrue(journal.isFailed());
+        }
+        assertTrue(meterRegistry.get("decision.audit.dropped").tag("reason", "write_error").counter().count() > 0);
+    }
+
+    private static FileAuditJournal open(Path file) throws IOException {
+        return open(file, new SimpleMeterRegistry());
+    }
+
+    private static FileAuditJournal open(Path file, SimpleMeterRegistry meterRegistry) throws IOException {
+        return new FileAuditJournal(meterRegistry, file, 16, FileAuditJournal.Overflow.BLOCK, Duration.ofMillis(10));
+    }
+
+    private static void writeRecords(Path file, int count) throws IOException {
+        try (FileAuditJournal journal = open(file)) {
+            for (int i = 0; i < count; i++) {
+                journal.record(new AuditRecord(i, 1, Country.EE, "49002010976", 4000, 12 + i % 37, null, null, null,
+                        0));
+            }
+        }
+    }
+
+    private static void flipBit(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, offset);
+            channel.write(value.put(0, (byte) (value.get(0) ^ 1)).rewind(), offset);
+        }
+    }
+
+    private static List<AuditRecord> readAll(Path file) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        AuditJournalReader.read(file, records::add);
+        return records;
+    }
+}
@@ -0,0 +1,85 @@
+package ee.taltech.inbankbackend.config;
+
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.AgeValidator;
+import ee.taltech.inbankbackend.service.Country;
+import ee.taltech.inbankbackend.service.CreditModifierProvider;
+import ee.taltech.inbankbackend.service.PersonalCodeParser;
+import ee.taltech.inbankbackend.service.RegularAgeValidator;
+import ee.taltech.inbankbackend.service.SegmentCreditModifierProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionPolicyHolderTest {
+    private static final String PERSONAL_CODE = "50307172740";
+    private static final String SEGMENT_1_PERSONAL_CODE = "49002010976";
+
+    private final DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+    private final AgeValidator ageValidator =
+            new RegularAgeValidator(Clock.fixed(Instant.parse("2021-07-17T12:00:00Z"), ZoneOffset.UTC), policyHolder);
+    private final CreditModifierProvider creditModifierProvider = new SegmentCreditModifierProvider(policyHolder);
+
+    @Test
+    void testRejectedPolicyKeepsArtifactsOfPolicyInEffect() throws NoValidLoanException {
+        policyHolder.onUpdate(policy -> {
+            if (policy != DecisionPolicy.DEFAULT) {
+                throw new IllegalArgumentException("Rejected by the last preparer");
+            }
+            return policy;
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> policyHolder.update(stricterPolicy()));
+
+        assertSame(DecisionPolicy.DEFAULT, policyHolder.getPolicy());
+        ageValidator.verifyAgeEligibility(PersonalCodeParser.parse(PERSONAL_CODE));
+        assertEquals(100, creditModifier());
+    }
+
+    @Test
+    void testArtifactsArePublishedTogetherWithPolicy() throws NoValidLoanException {
+        List<Object> seenDuringUpdate = new ArrayList<>();
+        policyHolder.onUpdate(policy -> {
+            seenDuringUpdate.add(policyHolder.getPolicy());
+            seenDuringUpdate.add(creditModifier());
+            try {
+                ageValidator.verifyAgeEligibility(PersonalCodeParser.parse(PERSONAL_CODE));
+                seenDuringUpdate.add("eligible");
+            } catch (NoValidLoanException e) {
+                seenDuringUpdate.add(e);
+            }
+            return policy;
+        });
+        seenDuringUpdate.clear();
+
+        policyHolder.update(stricterPolicy());
+
+        assertEquals(List.of(DecisionPolicy.DEFAULT, 100, "eligible"), seenDuringUpdate);
+        assertEquals(1, policyHolder.getPolicy().getVersion());
+        assertSame(NoValidLoanException.UNDERAGE, assertThrows(NoValidLoanException.class,
+                () -> ageValidator.verifyAgeEligibility(PersonalCodeParser.parse(PERSONAL_CODE))));
+        assertEquals(40, creditModifier());
+    }
+
+    private int creditModifier() {
+        return creditModifierProvider.getCreditModifier(Country.EE, SEGMENT_1_PERSONAL_CODE).toCompletableFuture()
+                .join();
+    }
+
+    /**
+     * Raises the minimum age to 21 and lowers the credit modifier of the customer's segment to 40.
+     */
+    private static DecisionPolicy stricterPolicy() {
+        DecisionPolicy policy = DecisionPolicy.DEFAULT;
+        return new DecisionPolicy(1, policy.getMinimumLoanAmount(), policy.getMaximumLoanAmount(),
+                policy.getLoanAmountStep(), policy.getMinimumLoanPeriod(), policy.getMaximumLoanPeriod(),
+                policy.getLoanPeriodStep(), 21, policy.getMaximumAge(), policy.getMinimumCreditScore(),
+                List.of(new DecisionPolicy.Segment(0, 0), new DecisionPolicy.Segment(50, 40)));
+    }
+}
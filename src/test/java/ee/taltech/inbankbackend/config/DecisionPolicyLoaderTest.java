@@ -0,0 +1,117 @@
+package ee.taltech.inbankbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.inbankbackend.service.SegmentResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionPolicyLoaderTest {
+
+    @TempDir
+    private Path directory;
+
+    private final DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+    private DecisionPolicyLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        if (loader != null) {
+            loader.destroy();
+        }
+    }
+
+    @Test
+    void testPolicyIsLoadedAndReloaded() throws IOException {
+        Path file = write(policy(1, 100), 1);
+        loader = new DecisionPolicyLoader(policyHolder, new ObjectMapper(), file, Duration.ofHours(1));
+
+        assertEquals(1, policyHolder.getPolicy().getVersion());
+        assertEquals(100, new SegmentResolver(policyHolder.getPolicy()).getCreditModifier(80));
+
+        write(policy(2, 150), 2);
+        loader.reloadIfModified();
+
+        assertEquals(2, policyHolder.getPolicy().getVersion());
+        assertEquals(150, new SegmentResolver(policyHolder.getPolicy()).getCreditModifier(80));
+        assertEquals(0, new SegmentResolver(policyHolder.getPolicy()).getCreditModifier(74));
+    }
+
+    @Test
+    void testInvalidPolicyIsNotLoaded() throws IOException {
+        Path file = write(policy(1, 100), 1);
+        loader = new DecisionPolicyLoader(policyHolder, new ObjectMapper(), file, Duration.ofHours(1));
+
+        write(policy(2, 150).replace("\"minimumLoanAmount\": 2000", "\"minimumLoanAmount\": 20000"), 2);
+        loader.reloadIfModified();
+        assertEquals(1, policyHolder.getPolicy().getVersion());
+
+        write("{", 3);
+        loader.reloadIfModified();
+        assertEquals(1, policyHolder.getPolicy().getVersion());
+    }
+
+    @Test
+    void testPolicyOutsideDecisionTableIsRejectedBeforePreparers() throws IOException {
+        Path file = write(policy(1, 100), 1);
+        loader = new DecisionPolicyLoader(policyHolder, new ObjectMapper(), file, Duration.ofHours(1));
+        List<DecisionPolicy> prepared = new ArrayList<>();
+        policyHolder.onUpdate(prepared::add);
+        prepared.clear();
+
+        write(policy(2, 150).replace("\"maximumLoanPeriod\": 48", "\"maximumLoanPeriod\": 300"), 2);
+        loader.reloadIfModified();
+
+        assertEquals(1, policyHolder.getPolicy().getVersion());
+        assertEquals(List.of(), prepared);
+    }
+
+    @Test
+    void testInvalidPolicyFailsStartup() throws IOException {
+        Path file = write(policy(1, 100).replace("\"minimumAge\": 18", "\"minimumAge\": 80"), 1);
+
+        assertThrows(UncheckedIOException.class,
+                () -> new DecisionPolicyLoader(policyHolder, new ObjectMapper(), file, Duration.ofHours(1)));
+    }
+
+    private Path write(String policy, long modified) throws IOException {
+        Path file = directory.resolve("policy.json");
+        Files.writeString(file, policy);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified * 1000));
+        return file;
+    }
+
+    private static String policy(long version, int segment1CreditModifier) {
+        return """
+                {
+                  "version": %d,
+                  "minimumLoanAmount": 2000,
+                  "maximumLoanAmount": 10000,
+                  "loanAmountStep": 100,
+                  "minimumLoanPeriod": 12,
+                  "maximumLoanPeriod": 48,
+                  "loanPeriodStep": 6,
+                  "minimumAge": 18,
+                  "maximumAge": 74,
+                  "minimumCreditScore": 0.1,
+                  "segments": [
+                    {"from": 0, "creditModifier": 0},
+                    {"from": 75, "creditModifier": %d},
+                    {"from": 85, "creditModifier": 300},
+                    {"from": 95, "creditModifier": 1000}
+                  ]
+                }
+                """.formatted(version, segment1CreditModifier);
+    }
+}
@@ -0,0 +1,31 @@
+package ee.taltech.inbankbackend.config;
+
+import ee.taltech.inbankbackend.endpoint.DecisionRequest;
+import ee.taltech.inbankbackend.endpoint.DecisionResponse;
+import ee.taltech.inbankbackend.service.Country;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecisionRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void testJsonBodiesAreBindable() throws NoSuchMethodException {
+        new DecisionRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(DecisionRequest.class.getConstructor(
+                String.class, Long.class, int.class, Country.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(DecisionRequest.class, "getCountry").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(DecisionResponse.class, "getLoanAmount").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Country.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(DecisionPolicy.Segment.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(
+                "ee.taltech.inbankbackend.service.RegistryCreditModifierProvider$CreditModifierResponse"))
+                .test(hints));
+    }
+}
@@ -0,0 +1,91 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import ee.taltech.inbankbackend.service.Country;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DecisionBinaryCodecTest {
+
+    @Test
+    void testRequestRoundTrip() {
+        byte[] bytes = DecisionBinaryCodec.encodeRequest(new DecisionRequest("49002010976", 4000L, 24));
+        assertEquals(2 + 11 + 8 + 4 + 2, bytes.length);
+
+        DecisionRequest request = DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(bytes));
+        assertEquals("49002010976", request.getPersonalCode());
+        assertEquals(4000L, request.getLoanAmount());
+        assertEquals(24, request.getLoanPeriod());
+        assertEquals(Country.EE, request.getCountry());
+
+        // Decoding from the middle of a larger array and from a direct buffer gives the same request
+        byte[] padded = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+        ByteBuffer slice = ByteBuffer.wrap(padded, 3, bytes.length).slice();
+        assertEquals("49002010976", DecisionBinaryCodec.decodeRequest(slice).getPersonalCode());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        assertEquals(24, DecisionBinaryCodec.decodeRequest(direct).getLoanPeriod());
+    }
+
+    @Test
+    void testRequestCountry() {
+        byte[] bytes = DecisionBinaryCodec.encodeRequest(new DecisionRequest("131052-308T", 4000L, 24, Country.FI));
+        DecisionRequest request = DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(bytes));
+        assertEquals("131052-308T", request.getPersonalCode());
+        assertEquals(Country.FI, request.getCountry());
+
+        // Version 1 requests have no country and are Estonian
+        byte[] withoutCountry = Arrays.copyOf(
+                DecisionBinaryCodec.encodeRequest(new DecisionRequest("49002010976", 4000L, 24)), 2 + 11 + 8 + 4);
+        withoutCountry[0] = 1;
+        assertEquals(Country.EE, DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(withoutCountry)).getCountry());
+
+        byte[] unknownCountry = bytes.clone();
+        unknownCountry[unknownCountry.length - 1] = 'X';
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(unknownCountry)));
+    }
+
+    @Test
+    void testResponseRoundTrip() {
+        DecisionResponse approved = DecisionBinaryCodec.decodeResponse(ByteBuffer.wrap(
+                DecisionBinaryCodec.encodeResponse(new DecisionResponse(4000, 24, null))));
+        assertEquals(4000, approved.getLoanAmount());
+        assertEquals(24, approved.getLoanPeriod());
+        assertNull(approved.getErrorMessage());
+
+        DecisionResponse rejected = DecisionBinaryCodec.decodeResponse(ByteBuffer.wrap(
+                DecisionBinaryCodec.encodeResponse(DecisionResponse.error("Laenu ei leitud, v\u00f5lg"))));
+        assertNull(rejected.getLoanAmount());
+        assertNull(rejected.getLoanPeriod());
+        assertEquals("Laenu ei leitud, v\u00f5lg", rejected.getErrorMessage());
+
+        assertEquals("", DecisionBinaryCodec.decodeResponse(ByteBuffer.wrap(
+                DecisionBinaryCodec.encodeResponse(DecisionResponse.error("")))).getErrorMessage());
+    }
+
+    @Test
+    void testMalformedRequestIsRejected() {
+        byte[] bytes = DecisionBinaryCodec.encodeRequest(new DecisionRequest("49002010976", 4000L, 24));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length + 1))));
+        byte[] unknownVersion = bytes.clone();
+        unknownVersion[0] = 3;
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(unknownVersion)));
+        byte[] overlongCode = bytes.clone();
+        overlongCode[1] = (byte) 200;
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionBinaryCodec.decodeRequest(ByteBuffer.wrap(overlongCode)));
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionBinaryCodec.encodeRequest(new DecisionRequest("4900201097\u00e4", 4000L, 24)));
+    }
+}
@@ -1,12 +1,15 @@
 package ee.taltech.inbankbackend.endpoint;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
 import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Country;
 import ee.taltech.inbankbackend.service.Decision;
 import ee.taltech.inbankbackend.service.DecisionEngine;
+import ee.taltech.inbankbackend.service.OfferMatrix;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,10 +23,16 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -57,7 +66,7 @@ public class DecisionEngineControllerTest {
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
             InvalidLoanAmountException {
         Decision decision = new Decision(1000, 12, null);
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt())).thenReturn(decision);
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt())).thenReturn(decision);
 
         DecisionRequest request = new DecisionRequest("1234", 10L, 10);
 
@@ -77,6 +86,109 @@ public class DecisionEngineControllerTest {
         assert response.getErrorMessage() == null;
     }
 
+    /**
+     * This method tests that the /loan/decision endpoint reads and writes CBOR when asked to.
+     */
+    @Test
+    public void givenCborRequest_whenRequestDecision_thenReturnsCborResponse()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), eq(2000L), eq(12)))
+                .thenReturn(new Decision(3000, 12, null));
+        CBORMapper cborMapper = new CBORMapper();
+
+        MvcResult result = mockMvc.perform(post("/loan/decision")
+                        .content(cborMapper.writeValueAsBytes(new DecisionRequest("1234", 2000L, 12)))
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        DecisionResponse response = cborMapper.readValue(result.getResponse().getContentAsByteArray(),
+                DecisionResponse.class);
+        assert response.getLoanAmount() == 3000;
+        assert response.getLoanPeriod() == 12;
+        assert response.getErrorMessage() == null;
+    }
+
+    /**
+     * This method tests that the /loan/decision endpoint reads and writes the compact binary format when asked to,
+     * error responses included.
+     */
+    @Test
+    public void givenBinaryRequest_whenRequestDecision_thenReturnsBinaryResponse()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), eq(2000L), eq(12)))
+                .thenReturn(new Decision(3000, 12, null));
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("5678"), anyLong(), anyInt()))
+                .thenThrow(new InvalidPersonalCodeException("Invalid personal code"));
+
+        MvcResult result = mockMvc.perform(post("/loan/decision")
+                        .content(DecisionBinaryCodec.encodeRequest(new DecisionRequest("1234", 2000L, 12)))
+                        .contentType(DecisionBinaryCodec.MEDIA_TYPE)
+                        .accept(DecisionBinaryCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DecisionBinaryCodec.MEDIA_TYPE))
+                .andReturn();
+
+        DecisionResponse response = DecisionBinaryCodec.decodeResponse(
+                ByteBuffer.wrap(result.getResponse().getContentAsByteArray()));
+        assert response.getLoanAmount() == 3000;
+        assert response.getLoanPeriod() == 12;
+        assert response.getErrorMessage() == null;
+
+        result = mockMvc.perform(post("/loan/decision")
+                        .content(DecisionBinaryCodec.encodeRequest(new DecisionRequest("5678", 2000L, 12)))
+                        .contentType(DecisionBinaryCodec.MEDIA_TYPE)
+                        .accept(DecisionBinaryCodec.MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        response = DecisionBinaryCodec.decodeResponse(ByteBuffer.wrap(result.getResponse().getContentAsByteArray()));
+        assert response.getLoanAmount() == null;
+        assert "Invalid personal code".equals(response.getErrorMessage());
+    }
+
+    /**
+     * This test ensures that a truncated binary request is rejected with an HTTP Bad Request (400) response.
+     */
+    @Test
+    public void givenTruncatedBinaryRequest_whenRequestDecision_thenReturnsBadRequest() throws Exception {
+        byte[] request = DecisionBinaryCodec.encodeRequest(new DecisionRequest("1234", 2000L, 12));
+
+        mockMvc.perform(post("/loan/decision")
+                        .content(Arrays.copyOf(request, request.length - 1))
+                        .contentType(DecisionBinaryCodec.MEDIA_TYPE))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * This test ensures that the personal code is decided with the country named in the request and that
+     * an unsupported country is rejected with an HTTP Bad Request (400) response.
+     */
+    @Test
+    public void givenCountry_whenRequestDecision_thenDecidesWithCountry()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.LV), eq("161175-19997"), eq(2000L), eq(12)))
+                .thenReturn(new Decision(2000, 12, null));
+
+        mockMvc.perform(post("/loan/decision")
+                        .content("{\"personalCode\":\"161175-19997\",\"loanAmount\":2000,\"loanPeriod\":12,"
+                                + "\"country\":\"LV\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loanAmount").value(2000));
+
+        mockMvc.perform(post("/loan/decision")
+                        .content("{\"personalCode\":\"161175-19997\",\"loanAmount\":2000,\"loanPeriod\":12,"
+                                + "\"country\":\"SE\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * This test ensures that if an invalid personal code is provided, the controller returns
      * an HTTP Bad Request (400) response with the appropriate error message in the response body.
@@ -85,7 +197,7 @@ public class DecisionEngineControllerTest {
     public void givenInvalidPersonalCode_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
             InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt()))
                 .thenThrow(new InvalidPersonalCodeException("Invalid personal code"));
 
         DecisionRequest request = new DecisionRequest("1234", 10L, 10);
@@ -114,7 +226,7 @@ public class DecisionEngineControllerTest {
     public void givenInvalidLoanAmount_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
             InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt()))
                 .thenThrow(new InvalidLoanAmountException("Invalid loan amount"));
 
         DecisionRequest request = new DecisionRequest("1234", 10L, 10);
@@ -143,7 +255,7 @@ public class DecisionEngineControllerTest {
     public void givenInvalidLoanPeriod_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
             InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt()))
                 .thenThrow(new InvalidLoanPeriodException("Invalid loan period"));
 
         DecisionRequest request = new DecisionRequest("1234", 10L, 10);
@@ -172,7 +284,7 @@ public class DecisionEngineControllerTest {
     public void givenNoValidLoan_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
             InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt()))
                 .thenThrow(new NoValidLoanException("No valid loan available"));
 
         DecisionRequest request = new DecisionRequest("1234", 1000L, 12);
@@ -201,7 +313,7 @@ public class DecisionEngineControllerTest {
     public void givenUnexpectedError_whenRequestDecision_thenReturnsInternalServerError()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
             InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt())).thenThrow(new RuntimeException());
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt())).thenThrow(new RuntimeException());
 
         DecisionRequest request = new DecisionRequest("1234", 10L, 10);
 
@@ -220,4 +332,142 @@ public class DecisionEngineControllerTest {
         assert response.getLoanPeriod() == null;
         assert response.getErrorMessage().equals("An unexpected error occurred");
     }
+
+    /**
+     * This test ensures that the batch endpoint streams back a response for every request of a JSON array,
+     * reporting the errors of single requests inline instead of failing the whole batch.
+     */
+    @Test
+    public void givenBatchRequest_whenRequestDecisions_thenReturnsResponsePerRequest()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), anyLong(), anyInt()))
+                .thenReturn(new Decision(1000, 12, null));
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("5678"), anyLong(), anyInt()))
+                .thenThrow(new InvalidPersonalCodeException("Invalid personal code"));
+
+        List<DecisionRequest> requests = List.of(
+                new DecisionRequest("1234", 1000L, 12),
+                new DecisionRequest("5678", 1000L, 12));
+
+        MvcResult result = mockMvc.perform(post("/loan/decisions")
+                        .content(objectMapper.writeValueAsString(requests))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].loanAmount").value(1000))
+                .andExpect(jsonPath("$[0].loanPeriod").value(12))
+                .andExpect(jsonPath("$[0].errorMessage").isEmpty())
+                .andExpect(jsonPath("$[1].loanAmount").isEmpty())
+                .andExpect(jsonPath("$[1].loanPeriod").isEmpty())
+                .andExpect(jsonPath("$[1].errorMessage").value("Invalid personal code"));
+    }
+
+    /**
+     * This test ensures that the batch endpoint answers newline delimited JSON requests with
+     * newline delimited JSON responses.
+     */
+    @Test
+    public void givenNdjsonBatchRequest_whenRequestDecisions_thenReturnsNdjsonResponses()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), anyString(), anyLong(), anyInt()))
+                .thenReturn(new Decision(1000, 12, null));
+
+        String requests = objectMapper.writeValueAsString(new DecisionRequest("1234", 1000L, 12)) + "\n"
+                + objectMapper.writeValueAsString(new DecisionRequest("5678", 1000L, 12)) + "\n";
+
+        MvcResult result = mockMvc.perform(post("/loan/decisions")
+                        .content(requests)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] responses = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assert responses.length == 2;
+        for (String line : responses) {
+            DecisionResponse response = objectMapper.readValue(line, DecisionResponse.class);
+            assert response.getLoanAmount() == 1000;
+            assert response.getLoanPeriod() == 12;
+        }
+    }
+
+    /**
+     * This method tests the /loan/offers endpoint with a valid personal code.
+     */
+    @Test
+    public void givenValidPersonalCode_whenRequestOfferMatrix_thenReturnsMaxLoanAmounts()
+            throws Exception, NoValidLoanException, InvalidPersonalCodeException, InvalidLoanAmountException {
+        int[] maxLoanAmounts = new int[37];
+        maxLoanAmounts[36] = 4800;
+        when(decisionEngine.calculateOfferMatrix(Country.EE, "49002010976")).thenReturn(new OfferMatrix(12, maxLoanAmounts));
+
+        MvcResult result = mockMvc.perform(post("/loan/offers")
+                        .content(objectMapper.writeValueAsString(new OfferMatrixRequest("49002010976")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.firstLoanPeriod").value(12))
+                .andExpect(jsonPath("$.maxLoanAmounts.length()").value(37))
+                .andExpect(jsonPath("$.maxLoanAmounts[36]").value(4800))
+                .andExpect(jsonPath("$.errorMessage").isEmpty())
+                .andReturn();
+
+        OfferMatrixResponse response = objectMapper.readValue(result.getResponse().getContentAsString(),
+                OfferMatrixResponse.class);
+        assert response.getMaxLoanAmounts()[0] == 0;
+        assert response.getMaxLoanAmounts()[36] == 4800;
+    }
+
+    /**
+     * This test ensures that the /loan/offers endpoint writes CBOR when asked to and has no compact binary format.
+     */
+    @Test
+    public void givenCborAccepted_whenRequestOfferMatrix_thenReturnsCbor()
+            throws Exception, NoValidLoanException, InvalidPersonalCodeException, InvalidLoanAmountException {
+        when(decisionEngine.calculateOfferMatrix(Country.EE, "49002010976"))
+                .thenReturn(new OfferMatrix(12, new int[37]));
+
+        MvcResult result = mockMvc.perform(post("/loan/offers")
+                        .content(objectMapper.writeValueAsString(new OfferMatrixRequest("49002010976")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        OfferMatrixResponse response = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(),
+                OfferMatrixResponse.class);
+        assert response.getFirstLoanPeriod() == 12;
+
+        mockMvc.perform(post("/loan/offers")
+                        .content(objectMapper.writeValueAsString(new OfferMatrixRequest("49002010976")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(DecisionBinaryCodec.MEDIA_TYPE))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    /**
+     * This test ensures that the /loan/offers endpoint rejects customers in debt like the /loan/decision endpoint.
+     */
+    @Test
+    public void givenCustomerInDebt_whenRequestOfferMatrix_thenReturnsBadRequest()
+            throws Exception, NoValidLoanException, InvalidPersonalCodeException, InvalidLoanAmountException {
+        when(decisionEngine.calculateOfferMatrix(eq(Country.EE), anyString())).thenThrow(InvalidLoanAmountException.IN_DEBT);
+
+        mockMvc.perform(post("/loan/offers")
+                        .content(objectMapper.writeValueAsString(new OfferMatrixRequest("49002010965")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.maxLoanAmounts").isEmpty())
+                .andExpect(jsonPath("$.errorMessage").value("No valid loan found! You are in debt."));
+    }
 }
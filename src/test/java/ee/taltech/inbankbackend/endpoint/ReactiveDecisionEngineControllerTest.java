@@ -0,0 +1,148 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Country;
+import ee.taltech.inbankbackend.service.Decision;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import ee.taltech.inbankbackend.service.OfferMatrix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class holds tests for the WebFlux variant of the decision endpoints.
+ */
+class ReactiveDecisionEngineControllerTest {
+
+    private DecisionEngine decisionEngine;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        decisionEngine = mock(DecisionEngine.class);
+        // Spring Boot registers the parameter names module that lets Jackson use the DecisionRequest constructor
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modules(new ParameterNamesModule()).build();
+        webTestClient = WebTestClient
+                .bindToController(new ReactiveDecisionEngineController(new DecisionRequestHandler(decisionEngine)))
+                .httpMessageCodecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    codecs.customCodecs().register(new DecisionBinaryDecoder());
+                    codecs.customCodecs().register(new DecisionBinaryEncoder());
+                })
+                .build();
+    }
+
+    @Test
+    void givenValidRequest_whenRequestDecision_thenReturnsExpectedResponse()
+            throws InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), anyLong(), anyInt()))
+                .thenReturn(new Decision(1000, 12, null));
+
+        webTestClient.post().uri("/loan/decision")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DecisionRequest("1234", 10L, 10))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.loanAmount").isEqualTo(1000)
+                .jsonPath("$.loanPeriod").isEqualTo(12)
+                .jsonPath("$.errorMessage").isEmpty();
+    }
+
+    @Test
+    void givenBinaryRequest_whenRequestDecision_thenReturnsBinaryResponse()
+            throws InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), eq(2000L), eq(12)))
+                .thenReturn(new Decision(3000, 12, null));
+
+        byte[] body = webTestClient.post().uri("/loan/decision")
+                .contentType(DecisionBinaryCodec.MEDIA_TYPE)
+                .accept(DecisionBinaryCodec.MEDIA_TYPE)
+                .bodyValue(DecisionBinaryCodec.encodeRequest(new DecisionRequest("1234", 2000L, 12)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(DecisionBinaryCodec.MEDIA_TYPE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        DecisionResponse response = DecisionBinaryCodec.decodeResponse(ByteBuffer.wrap(body));
+        assert response.getLoanAmount() == 3000;
+        assert response.getLoanPeriod() == 12;
+        assert response.getErrorMessage() == null;
+    }
+
+    @Test
+    void givenValidPersonalCode_whenRequestOfferMatrix_thenReturnsMaxLoanAmounts()
+            throws NoValidLoanException, InvalidPersonalCodeException, InvalidLoanAmountException {
+        int[] maxLoanAmounts = new int[37];
+        maxLoanAmounts[36] = 4800;
+        when(decisionEngine.calculateOfferMatrix(Country.EE, "49002010976")).thenReturn(new OfferMatrix(12, maxLoanAmounts));
+
+        webTestClient.post().uri("/loan/offers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new OfferMatrixRequest("49002010976"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstLoanPeriod").isEqualTo(12)
+                .jsonPath("$.maxLoanAmounts[36]").isEqualTo(4800)
+                .jsonPath("$.errorMessage").isEmpty();
+    }
+
+    @Test
+    void givenNoValidLoan_whenRequestDecision_thenReturnsNotFound()
+            throws InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), anyLong(), anyInt()))
+                .thenThrow(NoValidLoanException.UNDERAGE);
+
+        webTestClient.post().uri("/loan/decision")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DecisionRequest("1234", 10L, 10))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.loanAmount").isEmpty()
+                .jsonPath("$.errorMessage").isEqualTo(NoValidLoanException.UNDERAGE.getMessage());
+    }
+
+    @Test
+    void givenBatchRequest_whenRequestDecisions_thenReturnsResponsePerRequest()
+            throws InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("1234"), anyLong(), anyInt()))
+                .thenReturn(new Decision(1000, 12, null));
+        when(decisionEngine.calculateApprovedLoan(eq(Country.EE), eq("5678"), anyLong(), anyInt()))
+                .thenThrow(new InvalidPersonalCodeException("Invalid personal code"));
+
+        webTestClient.post().uri("/loan/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new DecisionRequest("1234", 1000L, 12), new DecisionRequest("5678", 1000L, 12)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].loanAmount").isEqualTo(1000)
+                .jsonPath("$[1].errorMessage").isEqualTo("Invalid personal code");
+    }
+}
@@ -0,0 +1,85 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Country;
+import ee.taltech.inbankbackend.service.Decision;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import ee.taltech.inbankbackend.service.OfferMatrix;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests that the WebFlux endpoints served by Reactor Netty decide requests off the event loops, whose
+ * threads are named reactor-http-nio, reactor-http-epoll or reactor-http-kqueue depending on the transport.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ReactiveDecisionEngineServerTest {
+
+    @MockBean
+    private DecisionEngine decisionEngine;
+
+    @LocalServerPort
+    private int port;
+
+    private final Queue<String> decidingThreads = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void givenRequests_whenDecided_thenEventLoopsAreNotBlocked()
+            throws InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException {
+        when(decisionEngine.calculateApprovedLoan(any(Country.class), anyString(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> {
+                    decidingThreads.add(Thread.currentThread().getName());
+                    return new Decision(1000, 12, null);
+                });
+        when(decisionEngine.calculateOfferMatrix(any(Country.class), anyString()))
+                .thenAnswer(invocation -> {
+                    decidingThreads.add(Thread.currentThread().getName());
+                    return new OfferMatrix(12, new int[37]);
+                });
+        WebTestClient webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+
+        webTestClient.post().uri("/loan/decision")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DecisionRequest("49002010976", 1000L, 12))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post().uri("/loan/offers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new OfferMatrixRequest("49002010976"))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post().uri("/loan/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new DecisionRequest("49002010976", 1000L, 12),
+                        new DecisionRequest("49002010987", 1000L, 12)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2);
+
+        assertEquals(4, decidingThreads.size());
+        for (String thread : decidingThreads) {
+            assertFalse(thread.startsWith("reactor-http-"), "Decided on the event loop thread " + thread);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ee.taltech.inbankbackend.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the credit registry, answering GET /credit-modifiers/{country}/{personalCode} with the credit
+ * modifier of the customer's segment. Responses can be held back to simulate a slow registry.
+ * Run the main method to point a locally started service at it with decision.credit-registry.url.
+ */
+public class CreditRegistryStubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CreditModifierProvider creditModifiers = new SegmentCreditModifierProvider(new DecisionPolicyHolder());
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile CountDownLatch responseGate = new CountDownLatch(0);
+
+    /**
+     * Starts the stub server on localhost.
+     * @param port Port to listen on, 0 for any free port
+     */
+    public CreditRegistryStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/credit-modifiers/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        CreditRegistryStubServer stubServer = new CreditRegistryStubServer(args.length > 0 ? Integer.parseInt(args[0]) : 8090);
+        System.out.println("Credit registry stub listening on " + stubServer.getUrl());
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Holds back all responses until {@link #releaseResponses()} is called.
+     */
+    public void holdResponses() {
+        responseGate = new CountDownLatch(1);
+    }
+
+    public void releaseResponses() {
+        responseGate.countDown();
+    }
+
+    @Override
+    public void close() {
+        releaseResponses();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            responseGate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        String[] segments = path.substring("/credit-modifiers/".length()).split("/");
+        Country country = Country.valueOf(segments[0]);
+        String personalCode = segments[1];
+        int creditModifier = creditModifiers.getCreditModifier(country, personalCode).toCompletableFuture().join();
+        byte[] body = ("{\"creditModifier\":" + creditModifier + "}").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
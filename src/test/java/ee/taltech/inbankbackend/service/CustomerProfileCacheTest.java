@@ -0,0 +1,92 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerProfileCacheTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-17T12:00:00Z"), ZoneOffset.UTC);
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerProfileCache customerProfileCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerProfileCache = new CustomerProfileCache(meterRegistry, CLOCK, 100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testProfileIsLoadedOnce() {
+        CustomerProfile profile = new CustomerProfile(1, true, null, 100, LocalDate.of(2026, 10, 18));
+
+        assertSame(profile, customerProfileCache.get(Country.EE, "49002010976", 1, code -> load(profile)));
+        assertSame(profile, customerProfileCache.get(Country.EE, "49002010976", 1, code -> load(profile)));
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "customer_profiles")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testProfileExpiresAtAgeBoundary() {
+        CustomerProfile profile = new CustomerProfile(1, true, NoValidLoanException.UNDERAGE, 100,
+                LocalDate.of(2026, 10, 17));
+
+        customerProfileCache.get(Country.EE, "60002290005", 1, code -> load(profile));
+        customerProfileCache.get(Country.EE, "60002290005", 1, code -> load(profile));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testProfileOfOlderPolicyIsReloaded() {
+        CustomerProfile profile = new CustomerProfile(1, true, null, 100, null);
+        CustomerProfile newProfile = new CustomerProfile(2, true, null, 300, null);
+
+        customerProfileCache.get(Country.EE, "49002010976", 1, code -> load(profile));
+        assertSame(newProfile, customerProfileCache.get(Country.EE, "49002010976", 2, code -> load(newProfile)));
+        assertSame(newProfile, customerProfileCache.get(Country.EE, "49002010976", 1, code -> load(profile)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testProfileIsLoadedWithoutBlockingOtherCustomers() {
+        CustomerProfile profile = new CustomerProfile(1, true, null, 100, null);
+        CompletableFuture<CustomerProfile> pendingProfile = new CompletableFuture<>();
+        CompletableFuture<CustomerProfile> pendingLookup = CompletableFuture.supplyAsync(() ->
+                customerProfileCache.get(Country.EE, "49002010976", 1, code -> pendingProfile));
+
+        // Another customer, possibly in the same hash bin, is served while the first profile is still loading
+        assertSame(profile, customerProfileCache.get(Country.EE, "49002010987", 1, code -> load(profile)));
+        assertFalse(pendingLookup.isDone());
+        pendingProfile.complete(profile);
+        assertSame(profile, pendingLookup.join());
+    }
+
+    @Test
+    void testFailedProfileIsNotCached() {
+        CustomerProfile profile = new CustomerProfile(1, true, null, 100, null);
+
+        assertThrows(CompletionException.class, () -> customerProfileCache.get(Country.EE, "49002010976", 1,
+                code -> CompletableFuture.failedFuture(new IllegalStateException("Credit registry unavailable"))));
+        assertSame(profile, customerProfileCache.get(Country.EE, "49002010976", 1, code -> load(profile)));
+    }
+
+    private CompletableFuture<CustomerProfile> load(CustomerProfile profile) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(profile);
+    }
+}
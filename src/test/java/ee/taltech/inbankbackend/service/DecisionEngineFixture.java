@@ -0,0 +1,123 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.audit.AuditJournal;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Getter;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Wires a decision engine the way the application context does, with in-memory metrics, the default decision policy,
+ * the segment credit modifiers and no audit journal. Tests and benchmarks replace single collaborators or resize
+ * the caches before building it, and read the built collaborators back from the getters.
+ */
+@Getter
+public class DecisionEngineFixture {
+    private final DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+    private Clock clock = Clock.systemDefaultZone();
+    private PersonalCodeValidator personalCodeValidator = new RegularPersonalCodeValidator();
+    private AgeValidator ageValidator;
+    private CreditModifierProvider creditModifierProvider;
+    private DecisionTable decisionTable;
+    private DecisionMetrics decisionMetrics = new DecisionMetrics(new SimpleMeterRegistry());
+    private long profileCacheSize = 100;
+    private Duration profileCacheTtl = Duration.ofMinutes(10);
+    private long resultCacheSize = 100;
+    private Duration resultCacheTtl = Duration.ofMinutes(1);
+    private AuditJournal auditJournal = AuditJournal.DISABLED;
+
+    private CustomerProfileCache customerProfileCache;
+    private CustomerProfileRule customerProfileRule;
+    private LoanAmountCalculator loanAmountCalculator;
+
+    public DecisionEngineFixture clock(Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    public DecisionEngineFixture personalCodeValidator(PersonalCodeValidator personalCodeValidator) {
+        this.personalCodeValidator = personalCodeValidator;
+        return this;
+    }
+
+    /**
+     * @param ageValidator Age validator, the regular one by default
+     */
+    public DecisionEngineFixture ageValidator(AgeValidator ageValidator) {
+        this.ageValidator = ageValidator;
+        return this;
+    }
+
+    /**
+     * @param creditModifierProvider Credit modifier provider, the segment one by default
+     */
+    public DecisionEngineFixture creditModifierProvider(CreditModifierProvider creditModifierProvider) {
+        this.creditModifierProvider = creditModifierProvider;
+        return this;
+    }
+
+    /**
+     * @param decisionTable Decision table, the one of the regular credit score calculator by default
+     */
+    public DecisionEngineFixture decisionTable(DecisionTable decisionTable) {
+        this.decisionTable = decisionTable;
+        return this;
+    }
+
+    public DecisionEngineFixture decisionMetrics(DecisionMetrics decisionMetrics) {
+        this.decisionMetrics = decisionMetrics;
+        return this;
+    }
+
+    public DecisionEngineFixture profileCache(long maximumSize, Duration ttl) {
+        this.profileCacheSize = maximumSize;
+        this.profileCacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * @param maximumSize Maximum number of cached decisions
+     * @param ttl How long decisions are kept, zero to decide every request again
+     */
+    public DecisionEngineFixture resultCache(long maximumSize, Duration ttl) {
+        this.resultCacheSize = maximumSize;
+        this.resultCacheTtl = ttl;
+        return this;
+    }
+
+    public DecisionEngineFixture auditJournal(AuditJournal auditJournal) {
+        this.auditJournal = auditJournal;
+        return this;
+    }
+
+    /**
+     * Builds the customer profile rule and the engine around it, the collaborators that were not replaced are
+     * created on the first call.
+     */
+    public DecisionEngine build() {
+        if (ageValidator == null) {
+            ageValidator = new RegularAgeValidator(clock, policyHolder);
+        }
+        if (creditModifierProvider == null) {
+            creditModifierProvider = new SegmentCreditModifierProvider(policyHolder);
+        }
+        loanAmountCalculator = new LoanAmountCalculator(new RegularCreditScoreCalculator());
+        if (decisionTable == null) {
+            decisionTable = new DecisionTable(new RegularCreditScoreCalculator(), loanAmountCalculator,
+                    decisionMetrics, policyHolder);
+        }
+        customerProfileCache = new CustomerProfileCache(new SimpleMeterRegistry(), clock, profileCacheSize,
+                profileCacheTtl);
+        customerProfileRule = new CustomerProfileRule(personalCodeValidator, ageValidator, creditModifierProvider,
+                customerProfileCache, decisionMetrics);
+        DecisionRules decisionRules = new DecisionRules(List.of(customerProfileRule, new LoanAmountRule(),
+                new LoanPeriodRule()), new SimpleMeterRegistry(), new StandardEnvironment());
+        return new DecisionEngine(decisionRules, customerProfileRule, decisionTable, loanAmountCalculator,
+                decisionMetrics, new DecisionResultCache(new SimpleMeterRegistry(), resultCacheSize, resultCacheTtl),
+                policyHolder, auditJournal);
+    }
+}
@@ -1,12 +1,16 @@
 package ee.taltech.inbankbackend.service;
 
+import ee.taltech.inbankbackend.audit.AuditRecord;
 import ee.taltech.inbankbackend.exceptions.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -16,20 +20,28 @@ import static org.mockito.Mockito.*;
     private PersonalCodeValidator personalCodeValidator;
 
     @Mock
-    private CreditScoreCalculator creditScoreCalculator;
+    private AgeValidator ageValidator;
 
     @Mock
-    private AgeValidator ageValidator;
+    private DecisionTable decisionTable;
 
     @Mock
-    private LoanAmountCalculator loanAmountCalculator;
+    private DecisionMetrics decisionMetrics;
 
-    @InjectMocks
     private DecisionEngine decisionEngine;
 
+    private final List<AuditRecord> auditRecords = new ArrayList<>();
+
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this); // Initializes mocks and injects them into the DecisionEngine
+        MockitoAnnotations.openMocks(this); // Initializes mocks
+        decisionEngine = new DecisionEngineFixture()
+                .personalCodeValidator(personalCodeValidator)
+                .ageValidator(ageValidator)
+                .decisionTable(decisionTable)
+                .decisionMetrics(decisionMetrics)
+                .auditJournal(auditRecords::add)
+                .build();
     }
 
     @Test
@@ -38,12 +50,10 @@ import static org.mockito.Mockito.*;
         Long loanAmount = 3000L;
         int loanPeriod = 24;
 
-        when(personalCodeValidator.isValid(personalCode)).thenReturn(true);
-        doNothing().when(ageValidator).verifyAgeEligibility(personalCode);
-        when(creditScoreCalculator.calculateCreditScore(anyInt(), eq(loanAmount), eq(loanPeriod)))
-                .thenReturn(0.2);
-        when(loanAmountCalculator.findMaximumLoanAmount(anyInt(), eq(loanPeriod)))
-                .thenReturn(new Decision(3000, 24, null));
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+        doNothing().when(ageValidator).verifyAgeEligibility(anyLong());
+        when(decisionTable.decide(any(), anyInt(), eq(3000L), eq(loanPeriod)))
+                .thenReturn(DecisionTable.pack(DecisionTable.APPROVED, 3000, 24));
 
         Decision decision = decisionEngine.calculateApprovedLoan(personalCode, loanAmount, loanPeriod);
 
@@ -59,7 +69,7 @@ import static org.mockito.Mockito.*;
         Long loanAmount = 3000L;
         int loanPeriod = 24;
 
-        when(personalCodeValidator.isValid(personalCode)).thenReturn(false);
+        when(personalCodeValidator.isValid(PersonalCodeParser.INVALID)).thenReturn(false);
 
         assertThrows(InvalidPersonalCodeException.class, () -> {
             decisionEngine.calculateApprovedLoan(personalCode, loanAmount, loanPeriod);
@@ -72,11 +82,131 @@ import static org.mockito.Mockito.*;
         Long loanAmount = 3000L;
         int loanPeriod = 24;
 
-        when(personalCodeValidator.isValid(personalCode)).thenReturn(true);
-        doThrow(new NoValidLoanException("AGE_RESTRICTION:UNDERAGE")).when(ageValidator).verifyAgeEligibility(personalCode);
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+        doThrow(new NoValidLoanException("AGE_RESTRICTION:UNDERAGE")).when(ageValidator).verifyAgeEligibility(anyLong());
 
         assertThrows(NoValidLoanException.class, () -> {
             decisionEngine.calculateApprovedLoan(personalCode, loanAmount, loanPeriod);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCustomerInDebt() throws InvalidPersonalCodeException, NoValidLoanException {
+        String personalCode = "49501234567";
+        Long loanAmount = 3000L;
+        int loanPeriod = 24;
+
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+        doNothing().when(ageValidator).verifyAgeEligibility(anyLong());
+        when(decisionTable.decide(any(), eq(0), eq(3000L), eq(loanPeriod))).thenReturn(DecisionTable.pack(DecisionTable.IN_DEBT, 0, 0));
+
+        InvalidLoanAmountException exception = assertThrows(InvalidLoanAmountException.class, () -> {
+            decisionEngine.calculateApprovedLoan(personalCode, loanAmount, loanPeriod);
+        });
+        assertEquals("No valid loan found! You are in debt.", exception.getMessage());
+        assertSame(InvalidLoanAmountException.IN_DEBT, exception);
+        assertEquals(0, exception.getStackTrace().length);
+        verify(decisionMetrics).countRejection(InvalidLoanAmountException.IN_DEBT);
+    }
+
+    @Test
+    void testOutcomesOfCachedDecisionsAreCounted() throws InvalidPersonalCodeException, InvalidLoanAmountException,
+            InvalidLoanPeriodException, NoValidLoanException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DecisionEngine decisionEngine = new DecisionEngineFixture()
+                .decisionMetrics(new DecisionMetrics(meterRegistry))
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            decisionEngine.calculateApprovedLoan("49002010976", 4000L, 24);
+            assertThrows(InvalidLoanAmountException.class,
+                    () -> decisionEngine.calculateApprovedLoan("49002010965", 4000L, 24));
+            assertThrows(InvalidLoanPeriodException.class,
+                    () -> decisionEngine.calculateApprovedLoan("49002010976", 50000L, 24));
+        }
+
+        assertEquals(2, outcomeCount(meterRegistry, "approved"));
+        assertEquals(2, outcomeCount(meterRegistry, "debt"));
+        assertEquals(2, outcomeCount(meterRegistry, "invalid_input"));
+    }
+
+    @Test
+    void testInvalidLoanAmountIsRejectedBeforeTheCustomerProfile() throws InvalidPersonalCodeException {
+        InvalidLoanPeriodException exception = assertThrows(InvalidLoanPeriodException.class,
+                () -> decisionEngine.calculateApprovedLoan("49002010976", 50000L, 24));
+
+        assertSame(InvalidLoanPeriodException.INVALID_LOAN_AMOUNT_OR_PERIOD, exception);
+        verify(personalCodeValidator, never()).isValid(anyLong());
+        verify(decisionMetrics).countRejection(InvalidLoanPeriodException.INVALID_LOAN_AMOUNT_OR_PERIOD);
+    }
+
+    @Test
+    void testOfferMatrix() throws InvalidPersonalCodeException, InvalidLoanAmountException, NoValidLoanException {
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+
+        OfferMatrix offerMatrix = decisionEngine.calculateOfferMatrix("49002010976");
+        int[] maximumLoanAmounts = offerMatrix.getMaxLoanAmounts();
+
+        assertEquals(12, offerMatrix.getFirstLoanPeriod());
+        assertEquals(37, maximumLoanAmounts.length);
+        assertEquals(0, maximumLoanAmounts[0]);
+        assertEquals(2000, maximumLoanAmounts[20 - 12]);
+        assertEquals(4800, maximumLoanAmounts[48 - 12]);
+    }
+
+    @Test
+    void testOfferMatrixOfCustomerInDebt() throws InvalidPersonalCodeException {
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+
+        assertSame(InvalidLoanAmountException.IN_DEBT, assertThrows(InvalidLoanAmountException.class,
+                () -> decisionEngine.calculateOfferMatrix("49002010965")));
+    }
+
+    @Test
+    void testPersonalCodesAreParsedWithTheirCountry()
+            throws InvalidPersonalCodeException, InvalidLoanPeriodException, NoValidLoanException,
+            InvalidLoanAmountException {
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+        when(decisionTable.decide(any(), anyInt(), eq(3000L), eq(24)))
+                .thenReturn(DecisionTable.pack(DecisionTable.APPROVED, 3000, 24));
+
+        decisionEngine.calculateApprovedLoan(Country.EE, "33309240064", 3000L, 24);
+        decisionEngine.calculateApprovedLoan(Country.LT, "33309240064", 3000L, 24);
+        decisionEngine.calculateApprovedLoan(Country.FI, "131052-308T", 3000L, 24);
+
+        // Equal Estonian and Lithuanian codes are different customers
+        verify(personalCodeValidator).isValid(PersonalCodeParser.parse(Country.EE, "33309240064"));
+        verify(personalCodeValidator).isValid(PersonalCodeParser.parse(Country.LT, "33309240064"));
+        verify(personalCodeValidator).isValid(PersonalCodeParser.parse(Country.FI, "131052-308T"));
+    }
+
+    @Test
+    void testDecisionsAreAudited() throws InvalidPersonalCodeException, NoValidLoanException {
+        when(personalCodeValidator.isValid(anyLong())).thenReturn(true);
+        when(decisionTable.decide(any(), anyInt(), eq(3000L), eq(24)))
+                .thenReturn(DecisionTable.pack(DecisionTable.APPROVED, 4000, 24));
+        when(decisionTable.decide(any(), eq(0), eq(3000L), eq(24)))
+                .thenReturn(DecisionTable.pack(DecisionTable.IN_DEBT, 0, 0));
+
+        assertDoesNotThrow(() -> decisionEngine.calculateApprovedLoan("49002010976", 3000L, 24));
+        assertThrows(InvalidLoanAmountException.class,
+                () -> decisionEngine.calculateApprovedLoan("49002010965", 3000L, 24));
+
+        assertEquals(2, auditRecords.size());
+        AuditRecord approved = auditRecords.get(0);
+        assertTrue(approved.isApproved());
+        assertEquals("49002010976", approved.getPersonalCode());
+        assertEquals(3000, approved.getLoanAmount());
+        assertEquals(4000, approved.getApprovedLoanAmount());
+        assertEquals(24, approved.getApprovedLoanPeriod());
+        assertEquals(0, approved.getPolicyVersion());
+        AuditRecord rejected = auditRecords.get(1);
+        assertFalse(rejected.isApproved());
+        assertNull(rejected.getApprovedLoanAmount());
+        assertEquals(InvalidLoanAmountException.IN_DEBT.getMessage(), rejected.getErrorMessage());
+    }
+
+    private static double outcomeCount(SimpleMeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.get("decision.outcome").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,107 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionResultCacheTest {
+
+    private DecisionResultCache decisionResultCache;
+    private AtomicInteger decisions;
+
+    @BeforeEach
+    void setUp() {
+        decisionResultCache = new DecisionResultCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        decisions = new AtomicInteger();
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsShareOneDecision() throws Exception {
+        CountDownLatch decisionStarted = new CountDownLatch(1);
+        CompletableFuture<Void> releaseDecision = new CompletableFuture<>();
+        ExecutorService threads = Executors.newCachedThreadPool();
+        List<Future<Decision>> results = new ArrayList<>();
+
+        results.add(threads.submit(() -> request((code, amount, period) -> {
+            decisions.incrementAndGet();
+            decisionStarted.countDown();
+            releaseDecision.join();
+            return new Decision(4000, 12, null);
+        })));
+        assertTrue(decisionStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            results.add(threads.submit(() -> request((code, amount, period) -> {
+                decisions.incrementAndGet();
+                return new Decision(2000, 12, null);
+            })));
+        }
+        releaseDecision.complete(null);
+
+        for (Future<Decision> result : results) {
+            assertEquals(4000, result.get(5, TimeUnit.SECONDS).getLoanAmount());
+        }
+        assertEquals(1, decisions.get());
+        threads.shutdown();
+    }
+
+    @Test
+    void testRejectionIsShared() {
+        for (int i = 0; i < 2; i++) {
+            InvalidLoanAmountException exception = assertThrows(InvalidLoanAmountException.class,
+                    () -> decisionResultCache.get(0, Country.EE, "49002010965", 4000L, 12, (code, amount, period) -> {
+                        decisions.incrementAndGet();
+                        throw InvalidLoanAmountException.IN_DEBT;
+                    }));
+            assertSame(InvalidLoanAmountException.IN_DEBT, exception);
+        }
+        assertEquals(1, decisions.get());
+    }
+
+    @Test
+    void testUnexpectedErrorIsNotCached() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class,
+                    () -> decisionResultCache.get(0, Country.EE, "49002010976", 4000L, 12, (code, amount, period) -> {
+                        decisions.incrementAndGet();
+                        throw new IllegalStateException("Credit registry is down");
+                    }));
+        }
+        assertEquals(2, decisions.get());
+    }
+
+    @Test
+    void testDifferentRequestsAreDecidedSeparately() throws Throwable {
+        decisionResultCache.get(0, Country.EE, "49002010976", 4000L, 12, (code, amount, period) -> load());
+        decisionResultCache.get(0, Country.EE, "49002010976", 4000L, 24, (code, amount, period) -> load());
+        decisionResultCache.get(0, Country.EE, "49002010976", 5000L, 12, (code, amount, period) -> load());
+        decisionResultCache.get(1, Country.EE, "49002010976", 4000L, 12, (code, amount, period) -> load());
+        assertEquals(4, decisions.get());
+    }
+
+    private Decision request(DecisionResultCache.DecisionLoader loader) {
+        try {
+            return decisionResultCache.get(0, Country.EE, "49002010976", 4000L, 12, loader);
+        } catch (Throwable rejection) {
+            throw new IllegalStateException(rejection);
+        }
+    }
+
+    private Decision load() {
+        decisions.incrementAndGet();
+        return new Decision(4000, 12, null);
+    }
+}
@@ -0,0 +1,106 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionRulesTest {
+    private final List<String> checked = new ArrayList<>();
+
+    @Test
+    void testRulesRunCheapestFirst()
+            throws InvalidPersonalCodeException, InvalidLoanPeriodException, NoValidLoanException {
+        DecisionRules decisionRules = new DecisionRules(List.of(rule("expensive", 100, false),
+                rule("cheap", 1, false), rule("medium", 10, false)), new SimpleMeterRegistry(), new MockEnvironment());
+
+        decisionRules.check(application());
+
+        assertEquals(List.of("cheap", "medium", "expensive"), decisionRules.getRuleNames());
+        assertEquals(List.of("cheap", "medium", "expensive"), checked);
+    }
+
+    @Test
+    void testCostCanBeConfigured() {
+        MockEnvironment environment = new MockEnvironment().withProperty("decision.rule.expensive.cost", "0");
+        DecisionRules decisionRules = new DecisionRules(List.of(rule("expensive", 100, false),
+                rule("cheap", 1, false)), new SimpleMeterRegistry(), environment);
+
+        assertEquals(List.of("expensive", "cheap"), decisionRules.getRuleNames());
+    }
+
+    @Test
+    void testFirstRejectionStopsTheCheck() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DecisionRules decisionRules = new DecisionRules(List.of(rule("expensive", 100, false),
+                rule("rejecting", 10, true), rule("cheap", 1, false)), meterRegistry, new MockEnvironment());
+
+        assertThrows(InvalidPersonalCodeException.class, () -> decisionRules.check(application()));
+
+        assertEquals(List.of("cheap", "rejecting"), checked);
+        assertEquals(1, meterRegistry.get("decision.rule.rejections").tag("rule", "rejecting").counter().count());
+        assertEquals(0, meterRegistry.get("decision.rule.rejections").tag("rule", "cheap").counter().count());
+        assertEquals(0, meterRegistry.get("decision.rule").tag("rule", "expensive").timer().count());
+        assertEquals(1, meterRegistry.get("decision.rule").tag("rule", "rejecting").timer().count());
+    }
+
+    @Test
+    void testErrorsAreNotCountedAsRejections() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DecisionRules decisionRules = new DecisionRules(List.of(new DecisionRule() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public int getCost() {
+                return 1;
+            }
+
+            @Override
+            public void check(LoanApplication application) {
+                throw new IllegalStateException("Credit registry unavailable");
+            }
+        }), meterRegistry, new MockEnvironment());
+
+        assertThrows(IllegalStateException.class, () -> decisionRules.check(application()));
+
+        assertEquals(0, meterRegistry.get("decision.rule.rejections").tag("rule", "failing").counter().count());
+        assertEquals(1, meterRegistry.get("decision.rule.errors").tag("rule", "failing").counter().count());
+    }
+
+    private static LoanApplication application() {
+        return new LoanApplication(DecisionPolicy.DEFAULT, Country.EE, "49002010976", 4000L, 24);
+    }
+
+    private DecisionRule rule(String name, int cost, boolean rejecting) {
+        return new DecisionRule() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int getCost() {
+                return cost;
+            }
+
+            @Override
+            public void check(LoanApplication application) throws InvalidPersonalCodeException {
+                checked.add(name);
+                if (rejecting) {
+                    throw InvalidPersonalCodeException.INVALID_PERSONAL_CODE;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DecisionTableTest {
+
+    private static final DecisionPolicy POLICY = DecisionPolicy.DEFAULT;
+
+    private final CreditScoreCalculator creditScoreCalculator = new RegularCreditScoreCalculator();
+    private final DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+    private final DecisionTable decisionTable =
+            new DecisionTable(creditScoreCalculator, new LoanAmountCalculator(creditScoreCalculator),
+                    new DecisionMetrics(new SimpleMeterRegistry()), policyHolder);
+
+    @Test
+    void testApprovedLoanIsRaisedToMaximum() {
+        int decision = decisionTable.decide(POLICY, 1000, 2000L, 12);
+
+        assertEquals(DecisionTable.APPROVED, DecisionTable.outcome(decision));
+        assertEquals(10000, DecisionTable.loanAmount(decision));
+        assertEquals(48, DecisionTable.loanPeriod(decision));
+    }
+
+    @Test
+    void testRejectedLoanIsLoweredUntilApproved() {
+        int decision = decisionTable.decide(POLICY, 100, 5000L, 12);
+
+        assertEquals(DecisionTable.APPROVED, DecisionTable.outcome(decision));
+        assertEquals(4800, DecisionTable.loanAmount(decision));
+        assertEquals(48, DecisionTable.loanPeriod(decision));
+    }
+
+    @Test
+    void testCustomerInDebt() {
+        assertEquals(DecisionTable.IN_DEBT, DecisionTable.outcome(decisionTable.decide(POLICY, 0, 4000L, 36)));
+    }
+
+    @Test
+    void testRequestsOutsideTableAreCalculated() {
+        int offGrid = decisionTable.decide(POLICY, 100, 2550L, 12);
+        int unknownModifier = decisionTable.decide(POLICY, 250, 5000L, 12);
+
+        assertEquals(DecisionTable.pack(DecisionTable.APPROVED, 2550, 30), offGrid);
+        assertEquals(DecisionTable.pack(DecisionTable.APPROVED, 5000, 24), unknownModifier);
+    }
+
+    @Test
+    void testPolicyUpdateReplacesTable() {
+        DecisionPolicy policy = withSegments(1, List.of(new DecisionPolicy.Segment(0, 0),
+                new DecisionPolicy.Segment(50, 40)));
+        policyHolder.update(policy);
+
+        assertEquals(DecisionTable.pack(DecisionTable.NO_VALID_LOAN, 0, 0),
+                decisionTable.decide(policy, 40, 5000L, 12));
+        // Requests still deciding with the previous policy are calculated with it
+        assertEquals(DecisionTable.pack(DecisionTable.APPROVED, 10000, 48),
+                decisionTable.decide(POLICY, 1000, 2000L, 12));
+    }
+
+    @Test
+    void testPolicyOutsidePackedDecisionsIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DecisionPolicy(1, 2000, 10000, 100, 12, 300, 6, 18, 74, 0.1, POLICY.getSegments()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DecisionPolicy(1, 2000, 1 << 22, 2, 12, 48, 6, 18, 74, 0.1, POLICY.getSegments()));
+        // 4 credit modifiers x 40001 loan amounts x 37 loan periods
+        assertThrows(IllegalArgumentException.class,
+                () -> new DecisionPolicy(1, 2000, 42000, 1, 12, 48, 6, 18, 74, 0.1, POLICY.getSegments()));
+    }
+
+    private static DecisionPolicy withSegments(long version, List<DecisionPolicy.Segment> segments) {
+        return new DecisionPolicy(version, POLICY.getMinimumLoanAmount(), POLICY.getMaximumLoanAmount(),
+                POLICY.getLoanAmountStep(), POLICY.getMinimumLoanPeriod(), POLICY.getMaximumLoanPeriod(),
+                POLICY.getLoanPeriodStep(), POLICY.getMinimumAge(), POLICY.getMaximumAge(),
+                POLICY.getMinimumCreditScore(), segments);
+    }
+}
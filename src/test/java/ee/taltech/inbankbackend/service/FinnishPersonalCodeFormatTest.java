@@ -0,0 +1,48 @@
+package ee.taltech.inbankbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinnishPersonalCodeFormatTest {
+
+    @Test
+    void testParseValidCode() {
+        long personalCode = PersonalCodeParser.parse(Country.FI, "131052-308T");
+
+        assertEquals(Country.FI, PersonalCodeParser.country(personalCode));
+        assertEquals(19521013, PersonalCodeParser.birthDate(personalCode));
+        assertEquals(308, PersonalCodeParser.serial(personalCode));
+        assertEquals(25, PersonalCodeParser.checksum(personalCode));
+        assertEquals(8, PersonalCodeParser.segmentEnding(personalCode));
+        assertTrue(PersonalCodeParser.hasValidChecksum(personalCode));
+    }
+
+    @Test
+    void testCenturySigns() {
+        assertEquals(20010101, PersonalCodeParser.birthDate(PersonalCodeParser.parse(Country.FI, "010101A123N")));
+        assertEquals(19010101, PersonalCodeParser.birthDate(PersonalCodeParser.parse(Country.FI, "010101Y123N")));
+        assertEquals(18010101, PersonalCodeParser.birthDate(PersonalCodeParser.parse(Country.FI, "010101+123N")));
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.FI, "010101A123N")));
+        assertNotEquals(PersonalCodeParser.parse(Country.FI, "010101A123N"),
+                PersonalCodeParser.parse(Country.FI, "010101B123N"));
+    }
+
+    @Test
+    void testInvalidChecksum() {
+        assertFalse(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.FI, "131052-308U")));
+        assertFalse(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.FI, "131052-309T")));
+    }
+
+    @Test
+    void testMalformedCodes() {
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.FI, "131052*308T"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.FI, "131052-308G"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.FI, "131052-308"));
+        // Temporary codes
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.FI, "131052-908T"));
+        // 1900 was not a leap year, 2000 was
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.FI, "290200-002C"));
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.FI, "290200A002C")));
+    }
+}
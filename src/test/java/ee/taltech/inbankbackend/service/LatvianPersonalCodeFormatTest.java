@@ -0,0 +1,45 @@
+package ee.taltech.inbankbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatvianPersonalCodeFormatTest {
+
+    @Test
+    void testParseValidCode() {
+        long personalCode = PersonalCodeParser.parse(Country.LV, "161175-19997");
+
+        assertEquals(Country.LV, PersonalCodeParser.country(personalCode));
+        assertEquals(1, PersonalCodeParser.firstDigit(personalCode));
+        assertEquals(19751116, PersonalCodeParser.birthDate(personalCode));
+        assertEquals(999, PersonalCodeParser.serial(personalCode));
+        assertEquals(7, PersonalCodeParser.checksum(personalCode));
+        assertEquals(97, PersonalCodeParser.segmentEnding(personalCode));
+        assertTrue(PersonalCodeParser.hasValidChecksum(personalCode));
+        assertEquals(personalCode, PersonalCodeParser.parse(Country.LV, "16117519997"));
+    }
+
+    @Test
+    void testCenturies() {
+        assertEquals(20010101, PersonalCodeParser.birthDate(PersonalCodeParser.parse(Country.LV, "010101-20001")));
+        assertEquals(19990131, PersonalCodeParser.birthDate(PersonalCodeParser.parse(Country.LV, "310199-12344")));
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.LV, "010101-20001")));
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.LV, "310199-12344")));
+    }
+
+    @Test
+    void testInvalidChecksum() {
+        assertFalse(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse(Country.LV, "161175-19996")));
+    }
+
+    @Test
+    void testMalformedCodes() {
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.LV, "161175+19997"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.LV, "161175-1999"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.LV, "161175-39997"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.LV, "311175-19997"));
+        // Codes without a date of birth
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.LV, "321175-19997"));
+    }
+}
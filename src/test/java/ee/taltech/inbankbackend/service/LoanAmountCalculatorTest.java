@@ -0,0 +1,109 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoanAmountCalculatorTest {
+
+    private static final int[] CREDIT_MODIFIERS = {0, 100, 250, 300, 1000, 4321};
+    private static final DecisionPolicy POLICY = DecisionPolicy.DEFAULT;
+
+    private final CreditScoreCalculator regularCalculator = new RegularCreditScoreCalculator();
+
+    // Same scores, but forces the calculator to scan every combination.
+    private final CreditScoreCalculator scanningCalculator = regularCalculator::calculateCreditScore;
+
+    private final LoanAmountCalculator solver = new LoanAmountCalculator(regularCalculator);
+    private final LoanAmountCalculator scanner = new LoanAmountCalculator(scanningCalculator);
+
+    @Test
+    void testFindValidLoanAmountMatchesScan() {
+        for (int creditModifier : CREDIT_MODIFIERS) {
+            for (long loanAmount = 2000; loanAmount <= 10000; loanAmount += 50) {
+                for (int loanPeriod = 12; loanPeriod <= 48; loanPeriod++) {
+                    assertSameDecision(scanner.findValidLoanAmount(POLICY, creditModifier, loanAmount, loanPeriod),
+                            solver.findValidLoanAmount(POLICY, creditModifier, loanAmount, loanPeriod));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFindMaximumLoanAmountMatchesScan() {
+        for (int creditModifier : CREDIT_MODIFIERS) {
+            for (int loanPeriod = 12; loanPeriod <= 50; loanPeriod++) {
+                assertSameDecision(scanner.findMaximumLoanAmount(POLICY, loanPeriod, creditModifier),
+                        solver.findMaximumLoanAmount(POLICY, loanPeriod, creditModifier));
+            }
+        }
+    }
+
+    @Test
+    void testFindMaximumLoanAmountsMatchesScores() {
+        for (int creditModifier : CREDIT_MODIFIERS) {
+            int[] maximumLoanAmounts = scanner.findMaximumLoanAmounts(POLICY, creditModifier);
+
+            for (int loanPeriod = 12; loanPeriod <= 48; loanPeriod++) {
+                int expected = 0;
+                for (int loanAmount = 10000; loanAmount >= 2000 && expected == 0; loanAmount -= 100) {
+                    if (regularCalculator.calculateCreditScore(creditModifier, loanAmount, loanPeriod) >= 0.1) {
+                        expected = loanAmount;
+                    }
+                }
+                assertEquals(expected, maximumLoanAmounts[loanPeriod - 12]);
+            }
+        }
+    }
+
+    @Test
+    void testFindValidLoanAmountLowersAmountAndRaisesPeriod() {
+        Decision decision = solver.findValidLoanAmount(POLICY, 100, 5000L, 12);
+
+        assertEquals(4800, decision.getLoanAmount());
+        assertEquals(48, decision.getLoanPeriod());
+    }
+
+    @Test
+    void testBulkCreditScoresMatchSingleScores() {
+        int[] loanAmounts = {2000, 2050, 3300, 9999, 10000};
+        double[] creditScores = new double[loanAmounts.length];
+
+        for (int creditModifier : CREDIT_MODIFIERS) {
+            for (int loanPeriod = 12; loanPeriod <= 48; loanPeriod++) {
+                regularCalculator.calculateCreditScores(creditModifier, loanAmounts, loanPeriod, creditScores);
+                for (int i = 0; i < loanAmounts.length; i++) {
+                    assertEquals(regularCalculator.calculateCreditScore(creditModifier, loanAmounts[i], loanPeriod),
+                            creditScores[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testApprovalMaskMatchesSingleScores() {
+        int[] loanAmounts = new int[81];
+        for (int i = 0; i < loanAmounts.length; i++) {
+            loanAmounts[i] = 10000 - i * 100;
+        }
+        int[] loanPeriods = {12, 18, 24, 30, 36, 42, 48};
+
+        for (int creditModifier : CREDIT_MODIFIERS) {
+            long[] mask = regularCalculator.calculateApprovalMask(creditModifier, loanAmounts, loanPeriods, 0.1);
+            for (int periodIndex = 0; periodIndex < loanPeriods.length; periodIndex++) {
+                for (int amountIndex = 0; amountIndex < loanAmounts.length; amountIndex++) {
+                    assertEquals(regularCalculator.calculateCreditScore(creditModifier, loanAmounts[amountIndex],
+                                    loanPeriods[periodIndex]) >= 0.1,
+                            ApprovalMask.isApproved(mask, loanAmounts.length, periodIndex, amountIndex));
+                }
+            }
+        }
+    }
+
+    private void assertSameDecision(Decision expected, Decision actual) {
+        assertEquals(expected.getLoanAmount(), actual.getLoanAmount());
+        assertEquals(expected.getLoanPeriod(), actual.getLoanPeriod());
+        assertEquals(expected.getErrorMessage(), actual.getErrorMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package ee.taltech.inbankbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonalCodeParserTest {
+
+    @Test
+    void testParseValidCode() {
+        long personalCode = PersonalCodeParser.parse("50307172740");
+
+        assertEquals(Country.EE, PersonalCodeParser.country(personalCode));
+        assertEquals(5, PersonalCodeParser.firstDigit(personalCode));
+        assertEquals(20030717, PersonalCodeParser.birthDate(personalCode));
+        assertEquals(274, PersonalCodeParser.serial(personalCode));
+        assertEquals(0, PersonalCodeParser.checksum(personalCode));
+        assertEquals(40, PersonalCodeParser.segmentEnding(personalCode));
+        assertTrue(PersonalCodeParser.hasValidChecksum(personalCode));
+    }
+
+    @Test
+    void testValidChecksums() {
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse("49002010965")));
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse("49002010998")));
+        assertTrue(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse("38001085718")));
+    }
+
+    @Test
+    void testInvalidChecksum() {
+        assertFalse(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.parse("49501234567")));
+        assertFalse(PersonalCodeParser.hasValidChecksum(PersonalCodeParser.INVALID));
+    }
+
+    @Test
+    void testMalformedCodes() {
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(null));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(Country.FI, null));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse(""));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("1234567890"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("5030717274a"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("70307172740"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("50313172740"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("50002300004"));
+    }
+
+    @Test
+    void testLithuanianCodes() {
+        long personalCode = PersonalCodeParser.parse(Country.LT, "33309240064");
+
+        assertEquals(Country.LT, PersonalCodeParser.country(personalCode));
+        assertEquals(19330924, PersonalCodeParser.birthDate(personalCode));
+        assertTrue(PersonalCodeParser.hasValidChecksum(personalCode));
+        assertEquals(Country.EE, PersonalCodeParser.country(PersonalCodeParser.parse("33309240064")));
+        assertNotEquals(PersonalCodeParser.parse("33309240064"), personalCode);
+    }
+
+    @Test
+    void testLeapDays() {
+        assertNotEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("60002290005"));
+        assertEquals(PersonalCodeParser.INVALID, PersonalCodeParser.parse("41902290005"));
+    }
+}
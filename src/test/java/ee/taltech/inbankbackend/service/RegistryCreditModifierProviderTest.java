@@ -0,0 +1,84 @@
+package ee.taltech.inbankbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistryCreditModifierProviderTest {
+
+    private CreditRegistryStubServer stubServer;
+    private RegistryCreditModifierProvider creditModifierProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new CreditRegistryStubServer(0);
+        creditModifierProvider = new RegistryCreditModifierProvider(WebClient.builder(), stubServer.getUrl(), 10,
+                Duration.ofSeconds(1), Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        creditModifierProvider.close();
+        stubServer.close();
+    }
+
+    @Test
+    void testFetchesCreditModifier() {
+        assertEquals(100, creditModifier(Country.EE, "49002010976"));
+        assertEquals(1000, creditModifier(Country.EE, "49002010998"));
+        assertEquals(2, stubServer.getRequestCount());
+    }
+
+    @Test
+    void testCoalescesConcurrentLookups() throws Exception {
+        stubServer.holdResponses();
+        List<CompletionStage<Integer>> lookups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lookups.add(creditModifierProvider.getCreditModifier(Country.EE, "49002010987"));
+        }
+        stubServer.releaseResponses();
+
+        for (CompletionStage<Integer> lookup : lookups) {
+            assertEquals(300, lookup.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, stubServer.getRequestCount());
+
+        // The finished lookup is not reused
+        assertEquals(300, creditModifier(Country.EE, "49002010987"));
+        assertEquals(2, stubServer.getRequestCount());
+    }
+
+    @Test
+    void testDoesNotCoalesceLookupsOfDifferentCountries() throws Exception {
+        stubServer.holdResponses();
+        CompletionStage<Integer> estonian = creditModifierProvider.getCreditModifier(Country.EE, "49002010976");
+        CompletionStage<Integer> lithuanian = creditModifierProvider.getCreditModifier(Country.LT, "49002010976");
+        stubServer.releaseResponses();
+
+        assertEquals(100, estonian.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(100, lithuanian.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(2, stubServer.getRequestCount());
+    }
+
+    @Test
+    void testFailsWhenRegistryDoesNotAnswerInTime() {
+        stubServer.holdResponses();
+
+        assertThrows(CompletionException.class, () -> creditModifier(Country.EE, "49002010976"));
+    }
+
+    private int creditModifier(Country country, String personalCode) {
+        return creditModifierProvider.getCreditModifier(country, personalCode).toCompletableFuture().join();
+    }
+}
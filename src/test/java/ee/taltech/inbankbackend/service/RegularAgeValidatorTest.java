@@ -0,0 +1,147 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegularAgeValidatorTest {
+
+    @Test
+    void testEighteenthBirthdayIsEligible() throws NoValidLoanException {
+        AgeValidator ageValidator = validatorAt("2021-07-17T00:00:00Z");
+
+        // Born on the 17th of July 2003
+        ageValidator.verifyAgeEligibility(PersonalCodeParser.parse("50307172740"));
+        assertEquals(LocalDate.of(2078, 7, 17),
+                ageValidator.getEligibilityChangeDate(PersonalCodeParser.parse("50307172740")));
+    }
+
+    @Test
+    void testDayBeforeEighteenthBirthdayIsUnderage() {
+        AgeValidator ageValidator = validatorAt("2021-07-16T23:59:59Z");
+
+        NoValidLoanException exception = assertThrows(NoValidLoanException.class,
+                () -> ageValidator.verifyAgeEligibility(PersonalCodeParser.parse("50307172740")));
+        assertSame(NoValidLoanException.UNDERAGE, exception);
+        assertEquals(LocalDate.of(2021, 7, 17),
+                ageValidator.getEligibilityChangeDate(PersonalCodeParser.parse("50307172740")));
+    }
+
+    @Test
+    void testSeventyFifthBirthdayIsOverage() throws NoValidLoanException {
+        // Born on the 8th of January 1980
+        long personalCode = PersonalCodeParser.parse("38001085718");
+        AgeValidator eligible = validatorAt("2055-01-07T12:00:00Z");
+        AgeValidator overage = validatorAt("2055-01-08T12:00:00Z");
+
+        eligible.verifyAgeEligibility(personalCode);
+        assertEquals(LocalDate.of(2055, 1, 8), eligible.getEligibilityChangeDate(personalCode));
+        assertSame(NoValidLoanException.OVERAGE,
+                assertThrows(NoValidLoanException.class, () -> overage.verifyAgeEligibility(personalCode)));
+        assertNull(overage.getEligibilityChangeDate(personalCode));
+    }
+
+    @Test
+    void testLeapDayBirthdayMovesToFirstOfMarch() throws NoValidLoanException {
+        // Born on the 29th of February 2000
+        long personalCode = PersonalCodeParser.parse("60002290005");
+        AgeValidator ageValidator = validatorAt("2018-02-28T12:00:00Z");
+
+        assertThrows(NoValidLoanException.class, () -> ageValidator.verifyAgeEligibility(personalCode));
+        assertEquals(LocalDate.of(2018, 3, 1), ageValidator.getEligibilityChangeDate(personalCode));
+        validatorAt("2018-03-01T12:00:00Z").verifyAgeEligibility(personalCode);
+        assertEquals(LocalDate.of(2075, 3, 1), validatorAt("2026-10-17T12:00:00Z")
+                .getEligibilityChangeDate(personalCode));
+    }
+
+    @Test
+    void testCutoffsRollOverAtMidnight() throws NoValidLoanException {
+        MutableClock clock = new MutableClock(Instant.parse("2021-07-16T23:59:59Z"), ZoneOffset.UTC);
+        AgeValidator ageValidator = new RegularAgeValidator(clock, new DecisionPolicyHolder());
+        long personalCode = PersonalCodeParser.parse("50307172740");
+
+        assertThrows(NoValidLoanException.class, () -> ageValidator.verifyAgeEligibility(personalCode));
+        clock.instant = Instant.parse("2021-07-17T00:00:00Z");
+        ageValidator.verifyAgeEligibility(personalCode);
+    }
+
+    @Test
+    void testCutoffsFollowPolicyUpdates() throws NoValidLoanException {
+        DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+        AgeValidator ageValidator = new RegularAgeValidator(clockAt("2021-07-17T12:00:00Z"), policyHolder);
+        long personalCode = PersonalCodeParser.parse("50307172740");
+        DecisionPolicy policy = DecisionPolicy.DEFAULT;
+
+        ageValidator.verifyAgeEligibility(personalCode);
+        policyHolder.update(new DecisionPolicy(1, policy.getMinimumLoanAmount(), policy.getMaximumLoanAmount(),
+                policy.getLoanAmountStep(), policy.getMinimumLoanPeriod(), policy.getMaximumLoanPeriod(),
+                policy.getLoanPeriodStep(), 21, policy.getMaximumAge(), policy.getMinimumCreditScore(),
+                policy.getSegments()));
+
+        assertSame(NoValidLoanException.UNDERAGE,
+                assertThrows(NoValidLoanException.class, () -> ageValidator.verifyAgeEligibility(personalCode)));
+        assertEquals(LocalDate.of(2024, 7, 17), ageValidator.getEligibilityChangeDate(personalCode));
+    }
+
+    @Test
+    void testCutoffsKeepUpdatedPolicyAcrossMidnight() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-07-16T23:59:59Z"), ZoneOffset.UTC);
+        DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+        AgeValidator ageValidator = new RegularAgeValidator(clock, policyHolder);
+        long personalCode = PersonalCodeParser.parse("50307172740");
+        DecisionPolicy policy = DecisionPolicy.DEFAULT;
+
+        policyHolder.update(new DecisionPolicy(1, policy.getMinimumLoanAmount(), policy.getMaximumLoanAmount(),
+                policy.getLoanAmountStep(), policy.getMinimumLoanPeriod(), policy.getMaximumLoanPeriod(),
+                policy.getLoanPeriodStep(), 22, policy.getMaximumAge(), policy.getMinimumCreditScore(),
+                policy.getSegments()));
+        clock.instant = Instant.parse("2024-07-17T00:00:00Z");
+
+        // 21 years old on the new day, still younger than the updated minimum age
+        assertSame(NoValidLoanException.UNDERAGE,
+                assertThrows(NoValidLoanException.class, () -> ageValidator.verifyAgeEligibility(personalCode)));
+        assertEquals(LocalDate.of(2025, 7, 17), ageValidator.getEligibilityChangeDate(personalCode));
+    }
+
+    private static AgeValidator validatorAt(String instant) {
+        return new RegularAgeValidator(clockAt(instant), new DecisionPolicyHolder());
+    }
+
+    private static Clock clockAt(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    private static final class MutableClock extends Clock {
+        private final ZoneId zone;
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionPolicy;
+import ee.taltech.inbankbackend.config.DecisionPolicyHolder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentResolverTest {
+
+    @Test
+    void testDefaultSegments() {
+        SegmentResolver segmentResolver = new SegmentResolver(DecisionPolicy.DEFAULT);
+
+        assertEquals(0, segmentResolver.getCreditModifier(0));
+        assertEquals(0, segmentResolver.getCreditModifier(74));
+        assertEquals(100, segmentResolver.getCreditModifier(75));
+        assertEquals(100, segmentResolver.getCreditModifier(84));
+        assertEquals(300, segmentResolver.getCreditModifier(85));
+        assertEquals(1000, segmentResolver.getCreditModifier(99));
+        assertEquals(0, segmentResolver.getCreditModifier(Country.EE, "49002010965"));
+        assertEquals(100, segmentResolver.getCreditModifier(Country.EE, "49002010976"));
+        assertEquals(300, segmentResolver.getCreditModifier(Country.EE, "49002010987"));
+        assertEquals(1000, segmentResolver.getCreditModifier(Country.EE, "49002010998"));
+    }
+
+    @Test
+    void testAnyNumberOfSegments() {
+        DecisionPolicy policy = new DecisionPolicy(1, 2000, 10000, 100, 12, 48, 6, 18, 74, 0.1,
+                List.of(new DecisionPolicy.Segment(0, 0), new DecisionPolicy.Segment(50, 50),
+                        new DecisionPolicy.Segment(60, 100), new DecisionPolicy.Segment(70, 200),
+                        new DecisionPolicy.Segment(80, 400), new DecisionPolicy.Segment(90, 800),
+                        new DecisionPolicy.Segment(99, 1600)));
+        SegmentResolver segmentResolver = new SegmentResolver(policy);
+
+        assertEquals(0, segmentResolver.getCreditModifier(Country.EE, "49002010949"));
+        assertEquals(50, segmentResolver.getCreditModifier(Country.EE, "49002010950"));
+        assertEquals(400, segmentResolver.getCreditModifier(Country.EE, "49002010989"));
+        assertEquals(800, segmentResolver.getCreditModifier(Country.EE, "49002010998"));
+        assertEquals(1600, segmentResolver.getCreditModifier(Country.EE, "49002010999"));
+    }
+
+    @Test
+    void testCompletedCreditModifiersAreSharedAndReadOnly() {
+        SegmentResolver segmentResolver = new SegmentResolver(DecisionPolicy.DEFAULT);
+
+        assertEquals(300,
+                segmentResolver.getCompletedCreditModifier(Country.EE, "49002010987").toCompletableFuture().join());
+        assertSame(segmentResolver.getCompletedCreditModifier(Country.EE, "49002010987"),
+                segmentResolver.getCompletedCreditModifier(Country.EE, "50001010087"));
+
+        // Callers cannot change the shared stage
+        segmentResolver.getCompletedCreditModifier(Country.EE, "49002010987").toCompletableFuture().obtrudeValue(0);
+        assertEquals(300,
+                segmentResolver.getCompletedCreditModifier(Country.EE, "49002010987").toCompletableFuture().join());
+        assertThrows(IllegalArgumentException.class,
+                () -> segmentResolver.getCreditModifier(Country.EE, "490020109xx"));
+    }
+
+    @Test
+    void testFinnishSegmentsIgnoreCheckCharacter() {
+        SegmentResolver segmentResolver = new SegmentResolver(DecisionPolicy.DEFAULT);
+
+        assertEquals(0, segmentResolver.getCreditModifier(Country.FI, "010190-065S"));
+        assertEquals(100, segmentResolver.getCreditModifier(Country.FI, "010190-176B"));
+        assertEquals(300, segmentResolver.getCreditModifier(Country.FI, "010190-087F"));
+        assertEquals(1000, segmentResolver.getCreditModifier(Country.FI, "010190-098U"));
+        assertEquals(0, segmentResolver.getCreditModifier(Country.FI, "131052-308T"));
+        assertEquals(300,
+                segmentResolver.getCompletedCreditModifier(Country.FI, "010190-287X").toCompletableFuture().join());
+    }
+
+    @Test
+    void testProviderFollowsPolicyUpdates() {
+        DecisionPolicyHolder policyHolder = new DecisionPolicyHolder();
+        SegmentCreditModifierProvider provider = new SegmentCreditModifierProvider(policyHolder);
+        assertEquals(100, provider.getCreditModifier(Country.EE, "49002010976").toCompletableFuture().join());
+
+        policyHolder.update(new DecisionPolicy(1, 2000, 10000, 100, 12, 48, 6, 18, 74, 0.1,
+                List.of(new DecisionPolicy.Segment(0, 0), new DecisionPolicy.Segment(70, 150))));
+
+        assertEquals(150, provider.getCreditModifier(Country.EE, "49002010976").toCompletableFuture().join());
+    }
+}